@@ -5,6 +5,9 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
+/**
+ * Marks a class as describing a table for the conversational layer.
+ */
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ConversationalEntity {
@@ -12,4 +15,4 @@ public @interface ConversationalEntity {
     String description() default ""; // Description for LLM context
     String[] searchableFields() default {}; // Fields that can be used for fuzzy search
     String[] uniqueFields() default {}; // Unique fields (e.g., ID) for UPDATE/DELETE
-}
\ No newline at end of file
+}
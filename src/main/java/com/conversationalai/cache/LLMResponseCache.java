@@ -0,0 +1,140 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.core.InputNormalizer;
+import com.conversationalai.dto.CacheStats;
+import com.conversationalai.dto.ConversationalLLMResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caches LLM plans (intent, SQL, parameters) keyed by normalized user input and schema fingerprint,
+ * so repeated questions skip the model round trip.
+ */
+@Slf4j
+@Component
+public class LLMResponseCache {
+
+    private final ConversationalAIProperties.CacheConfig config;
+    private final Set<String> cacheableIntents;
+    private final Map<String, CachedPlan> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private String currentFingerprint;
+
+    public LLMResponseCache(ConversationalAIProperties properties) {
+        this.config = properties.getCache();
+        this.cacheableIntents = Arrays.stream(config.getPlanCacheIntents())
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedPlan> eldest) {
+                boolean evict = size() > config.getPlanCacheMaxSize();
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public ConversationalLLMResponse get(String userInput, String schemaFingerprint) {
+        if (!config.isPlanCacheEnabled()) {
+            return null;
+        }
+
+        String key = InputNormalizer.normalize(userInput);
+        synchronized (entries) {
+            invalidateOnSchemaChange(schemaFingerprint);
+
+            CachedPlan plan = entries.get(key);
+            if (plan == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+
+            if (System.currentTimeMillis() - plan.createdAt > config.getPlanCacheTtlMs()) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+
+            hits.incrementAndGet();
+            log.debug("Plan cache hit for input: {}", key);
+            return copyOf(plan.response);
+        }
+    }
+
+    public void put(String userInput, String schemaFingerprint, ConversationalLLMResponse response) {
+        if (!config.isPlanCacheEnabled() || !isCacheable(response)) {
+            return;
+        }
+
+        String key = InputNormalizer.normalize(userInput);
+        synchronized (entries) {
+            invalidateOnSchemaChange(schemaFingerprint);
+            entries.put(key, new CachedPlan(copyOf(response), System.currentTimeMillis()));
+        }
+    }
+
+    public boolean isCacheable(ConversationalLLMResponse response) {
+        return response != null
+                && response.isValid()
+                && !response.isNeedsMoreInfo()
+                && response.getIntent() != null
+                && response.getSql() != null
+                && cacheableIntents.contains(response.getIntent().toUpperCase());
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            evictions.addAndGet(entries.size());
+            entries.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return CacheStats.builder()
+                    .hits(hits.get())
+                    .misses(misses.get())
+                    .evictions(evictions.get())
+                    .size(entries.size())
+                    .build();
+        }
+    }
+
+    private void invalidateOnSchemaChange(String schemaFingerprint) {
+        if (!Objects.equals(currentFingerprint, schemaFingerprint)) {
+            if (currentFingerprint != null && !entries.isEmpty()) {
+                log.debug("Schema changed, invalidating {} cached plans", entries.size());
+                evictions.addAndGet(entries.size());
+                entries.clear();
+            }
+            currentFingerprint = schemaFingerprint;
+        }
+    }
+
+    private ConversationalLLMResponse copyOf(ConversationalLLMResponse response) {
+        return response.toBuilder()
+                .parameters(response.getParameters() != null ? response.getParameters().clone() : null)
+                .missingFields(response.getMissingFields() != null ? response.getMissingFields().clone() : null)
+                .build();
+    }
+
+    private record CachedPlan(ConversationalLLMResponse response, long createdAt) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.database.SqlPaginator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Keeps paging cursors on the server and hands out opaque tokens for them, so clients can ask for the
+ * next page without the SQL ever leaving the service. The last token per session backs "show more".
+ * A token only resolves for the session it was issued to.
+ */
+@Component
+public class PageCursorStore {
+
+    private final ConversationalAIProperties.CacheConfig config;
+    private final Map<String, StoredCursor> cursors;
+    private final Map<String, String> lastTokenBySession;
+
+    public PageCursorStore(ConversationalAIProperties properties) {
+        this.config = properties.getCache();
+        this.cursors = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredCursor> eldest) {
+                return size() > config.getPageCursorMaxSize();
+            }
+        };
+        this.lastTokenBySession = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > config.getPageCursorMaxSize();
+            }
+        };
+    }
+
+    public String save(SqlPaginator.PageCursor cursor, String sessionId) {
+        String token = UUID.randomUUID().toString();
+        synchronized (cursors) {
+            cursors.put(token, new StoredCursor(cursor, sessionId, System.currentTimeMillis()));
+        }
+        return token;
+    }
+
+    public SqlPaginator.PageCursor get(String token, String sessionId) {
+        if (token == null) {
+            return null;
+        }
+        synchronized (cursors) {
+            StoredCursor stored = cursors.get(token);
+            if (stored == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - stored.createdAt > config.getPageCursorTtlMs()) {
+                cursors.remove(token);
+                return null;
+            }
+            if (!Objects.equals(stored.sessionId, sessionId)) {
+                return null;
+            }
+            return stored.cursor;
+        }
+    }
+
+    public void rememberForSession(String sessionId, String token) {
+        if (sessionId == null) {
+            return;
+        }
+        synchronized (lastTokenBySession) {
+            if (token == null) {
+                lastTokenBySession.remove(sessionId);
+            } else {
+                lastTokenBySession.put(sessionId, token);
+            }
+        }
+    }
+
+    public String lastTokenForSession(String sessionId) {
+        if (sessionId == null) {
+            return null;
+        }
+        synchronized (lastTokenBySession) {
+            return lastTokenBySession.get(sessionId);
+        }
+    }
+
+    private record StoredCursor(SqlPaginator.PageCursor cursor, String sessionId, long createdAt) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.CacheStats;
+import com.conversationalai.dto.QueryResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of read results keyed by canonical SQL and parameters. Each entry remembers the
+ * tables it read; a write to any of them drops it, and its lifetime is the shortest TTL configured for
+ * those tables. Entries are evicted least recently used first to stay within a byte budget that is
+ * estimated from the cached values.
+ */
+@Slf4j
+@Component
+public class QueryResultCache {
+
+    private final ConversationalAIProperties.CacheConfig config;
+    private final Map<String, Long> tableTtls;
+    private final LinkedHashMap<Key, CachedResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+    /** Write sequence number at which each table was last invalidated. */
+    private final Map<String, Long> invalidatedAt = new HashMap<>();
+    private long writeSequence;
+    private long invalidatedAllAt = -1;
+    private long usedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public QueryResultCache(ConversationalAIProperties properties) {
+        this.config = properties.getCache();
+        this.tableTtls = config.getResultCacheTableTtlMs().entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(entry -> normalize(entry.getKey()), Map.Entry::getValue));
+    }
+
+    public boolean isEnabled() {
+        return config.isResultCacheEnabled();
+    }
+
+    /**
+     * Marks the start of a read. Pass the returned value to {@link #put} so a result that raced with a
+     * write to one of its tables is not cached.
+     */
+    public long beginRead() {
+        synchronized (entries) {
+            return writeSequence;
+        }
+    }
+
+    public QueryResult get(String canonicalSql, Object[] parameters) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Key key = new Key(canonicalSql, parameters);
+        synchronized (entries) {
+            CachedResult cached = entries.get(key);
+            if (cached == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (System.currentTimeMillis() > cached.expiresAt) {
+                remove(key);
+                evictions.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return copyOf(cached.result);
+        }
+    }
+
+    public void put(String canonicalSql, Object[] parameters, Set<String> tables, QueryResult result, long readStartedAt) {
+        if (!isEnabled() || tables.isEmpty()) {
+            return;
+        }
+
+        Set<String> normalizedTables = tables.stream().map(QueryResultCache::normalize).collect(Collectors.toSet());
+        long ttl = normalizedTables.stream()
+                .mapToLong(table -> tableTtls.getOrDefault(table, config.getResultCacheTtlMs()))
+                .min()
+                .orElse(config.getResultCacheTtlMs());
+        long bytes = estimateBytes(canonicalSql, result);
+        if (ttl <= 0 || bytes > config.getResultCacheMaxBytes() / 4) {
+            return;
+        }
+
+        Key key = new Key(canonicalSql, parameters);
+        synchronized (entries) {
+            if (invalidatedAllAt > readStartedAt) {
+                return;
+            }
+            for (String table : normalizedTables) {
+                if (invalidatedAt.getOrDefault(table, -1L) > readStartedAt) {
+                    return;
+                }
+            }
+
+            remove(key);
+            entries.put(key, new CachedResult(copyOf(result), normalizedTables, bytes, System.currentTimeMillis() + ttl));
+            usedBytes += bytes;
+
+            Iterator<Map.Entry<Key, CachedResult>> eldest = entries.entrySet().iterator();
+            while (usedBytes > config.getResultCacheMaxBytes() && eldest.hasNext()) {
+                usedBytes -= eldest.next().getValue().bytes;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void invalidate(Collection<String> tables) {
+        Set<String> normalizedTables = tables.stream().map(QueryResultCache::normalize).collect(Collectors.toSet());
+        synchronized (entries) {
+            writeSequence++;
+            normalizedTables.forEach(table -> invalidatedAt.put(table, writeSequence));
+
+            int before = entries.size();
+            Iterator<CachedResult> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                CachedResult cached = iterator.next();
+                if (cached.tables.stream().anyMatch(normalizedTables::contains)) {
+                    usedBytes -= cached.bytes;
+                    iterator.remove();
+                }
+            }
+            evictions.addAndGet(before - entries.size());
+            if (before != entries.size()) {
+                log.debug("Write to {} invalidated {} cached results", normalizedTables, before - entries.size());
+            }
+        }
+    }
+
+    /** Used when a write's tables cannot be determined. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidatedAllAt = ++writeSequence;
+            evictions.addAndGet(entries.size());
+            entries.clear();
+            usedBytes = 0;
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return CacheStats.builder()
+                    .hits(hits.get())
+                    .misses(misses.get())
+                    .evictions(evictions.get())
+                    .size(entries.size())
+                    .build();
+        }
+    }
+
+    public long getUsedBytes() {
+        synchronized (entries) {
+            return usedBytes;
+        }
+    }
+
+    private void remove(Key key) {
+        CachedResult removed = entries.remove(key);
+        if (removed != null) {
+            usedBytes -= removed.bytes;
+        }
+    }
+
+    private QueryResult copyOf(QueryResult result) {
+        return result.toBuilder()
+                .values(List.copyOf(result.getValues()))
+                .continuationToken(null)
+                .build();
+    }
+
+    // Rough heap size: object headers, references, and two bytes per character of text.
+    private long estimateBytes(String sql, QueryResult result) {
+        long bytes = 128 + 2L * sql.length();
+        for (String column : result.getColumns()) {
+            bytes += 48 + 2L * column.length();
+        }
+        for (Object[] row : result.getValues()) {
+            bytes += 16 + 8L * row.length;
+            for (Object value : row) {
+                if (value instanceof CharSequence text) {
+                    bytes += 48 + 2L * text.length();
+                } else if (value instanceof byte[] data) {
+                    bytes += 16 + data.length;
+                } else if (value != null) {
+                    bytes += 24;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static String normalize(String table) {
+        return table.replace("\"", "").replace("`", "").toLowerCase(Locale.ROOT);
+    }
+
+    private record Key(String sql, List<Object> parameters) {
+        Key(String sql, Object[] parameters) {
+            this(sql, parameters != null ? Arrays.asList(parameters.clone()) : List.of());
+        }
+    }
+
+    private record CachedResult(QueryResult result, Set<String> tables, long bytes, long expiresAt) {
+    }
+}
@@ -0,0 +1,343 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.CacheStats;
+import com.conversationalai.dto.ConversationalLLMResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Learns query templates from LLM plans so that requests differing only in their literal values
+ * ("find users like john" / "find users like maria") reuse the same SQL without calling the model.
+ * A template is only learned when every SQL parameter maps to exactly one literal of the input,
+ * and only used when the new input matches a single template token for token.
+ */
+@Slf4j
+@Component
+public class QueryTemplateCache {
+
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final String EDGE_PUNCTUATION = ",.;:!?()";
+
+    private final ConversationalAIProperties.CacheConfig config;
+    private final Set<String> cacheableIntents;
+    private final Map<String, QueryTemplate> templates;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private String currentFingerprint;
+
+    public QueryTemplateCache(ConversationalAIProperties properties) {
+        this.config = properties.getCache();
+        this.cacheableIntents = Arrays.stream(config.getPlanCacheIntents())
+                .map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+        this.templates = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QueryTemplate> eldest) {
+                boolean evict = size() > config.getTemplateCacheMaxSize();
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+    }
+
+    public ConversationalLLMResponse match(String userInput, String schemaFingerprint) {
+        if (!config.isTemplateCacheEnabled()) {
+            return null;
+        }
+
+        List<InputToken> tokens = tokenize(userInput);
+        QueryTemplate matched = null;
+
+        synchronized (templates) {
+            invalidateOnSchemaChange(schemaFingerprint);
+
+            for (QueryTemplate template : templates.values()) {
+                if (!template.matches(tokens)) {
+                    continue;
+                }
+                if (matched != null && !matched.response.getSql().equals(template.response.getSql())) {
+                    log.debug("Ambiguous template match for input, falling back to LLM: {}", userInput);
+                    misses.incrementAndGet();
+                    return null;
+                }
+                if (matched == null || template.bindings.size() < matched.bindings.size()) {
+                    matched = template;
+                }
+            }
+        }
+
+        ConversationalLLMResponse response = matched != null ? matched.instantiate(tokens) : null;
+        if (response == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+        log.debug("Template cache hit for input: {} -> {}", userInput, response.getSql());
+        return response;
+    }
+
+    public void learn(String userInput, String schemaFingerprint, ConversationalLLMResponse response) {
+        if (!config.isTemplateCacheEnabled() || !isLearnable(response)) {
+            return;
+        }
+
+        List<InputToken> tokens = tokenize(userInput);
+        List<ParameterBinding> bindings = new ArrayList<>();
+        Set<Integer> boundTokens = new HashSet<>();
+        Object[] parameters = response.getParameters();
+
+        for (int i = 0; i < parameters.length; i++) {
+            ParameterBinding binding = bind(i, parameters[i], tokens);
+            if (binding == null || !boundTokens.add(binding.tokenIndex)) {
+                return;
+            }
+            bindings.add(binding);
+        }
+
+        QueryTemplate template = new QueryTemplate(tokens, bindings, response.toBuilder()
+                .parameters(parameters.clone())
+                .build());
+
+        synchronized (templates) {
+            invalidateOnSchemaChange(schemaFingerprint);
+            templates.put(template.key, template);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (templates) {
+            evictions.addAndGet(templates.size());
+            templates.clear();
+        }
+    }
+
+    public CacheStats getStats() {
+        synchronized (templates) {
+            return CacheStats.builder()
+                    .hits(hits.get())
+                    .misses(misses.get())
+                    .evictions(evictions.get())
+                    .size(templates.size())
+                    .build();
+        }
+    }
+
+    private boolean isLearnable(ConversationalLLMResponse response) {
+        return response != null
+                && response.isValid()
+                && !response.isNeedsMoreInfo()
+                && response.getSql() != null
+                && response.getIntent() != null
+                && cacheableIntents.contains(response.getIntent().toUpperCase())
+                && response.getParameters() != null
+                && response.getParameters().length > 0;
+    }
+
+    private ParameterBinding bind(int parameterIndex, Object parameter, List<InputToken> tokens) {
+        if (!(parameter instanceof String) && !(parameter instanceof Number)) {
+            return null;
+        }
+
+        String value = String.valueOf(parameter);
+        int start = 0;
+        int end = value.length();
+        if (parameter instanceof String) {
+            while (start < end && value.charAt(start) == '%') start++;
+            while (end > start && value.charAt(end - 1) == '%') end--;
+        }
+        String core = value.substring(start, end);
+        if (core.isEmpty()) {
+            return null;
+        }
+
+        int tokenIndex = -1;
+        for (int i = 0; i < tokens.size(); i++) {
+            if (tokens.get(i).text.equalsIgnoreCase(core)) {
+                if (tokenIndex != -1) {
+                    return null;
+                }
+                tokenIndex = i;
+            }
+        }
+        if (tokenIndex == -1) {
+            return null;
+        }
+
+        return new ParameterBinding(parameterIndex, tokenIndex, value.substring(0, start), value.substring(end),
+                parameter.getClass(), tokens.get(tokenIndex).text);
+    }
+
+    private void invalidateOnSchemaChange(String schemaFingerprint) {
+        if (!Objects.equals(currentFingerprint, schemaFingerprint)) {
+            if (currentFingerprint != null && !templates.isEmpty()) {
+                log.debug("Schema changed, invalidating {} query templates", templates.size());
+                evictions.addAndGet(templates.size());
+                templates.clear();
+            }
+            currentFingerprint = schemaFingerprint;
+        }
+    }
+
+    static List<InputToken> tokenize(String userInput) {
+        List<InputToken> tokens = new ArrayList<>();
+        if (userInput == null) {
+            return tokens;
+        }
+
+        int i = 0;
+        int length = userInput.length();
+        while (i < length) {
+            char c = userInput.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+
+            if (c == '\'' || c == '"') {
+                int close = userInput.indexOf(c, i + 1);
+                if (close != -1) {
+                    tokens.add(new InputToken(userInput.substring(i + 1, close), TokenKind.QUOTED));
+                    i = close + 1;
+                    continue;
+                }
+            }
+
+            int end = i;
+            while (end < length && !Character.isWhitespace(userInput.charAt(end))) {
+                end++;
+            }
+            String word = stripEdgePunctuation(userInput.substring(i, end));
+            if (!word.isEmpty()) {
+                tokens.add(new InputToken(word, NUMBER.matcher(word).matches() ? TokenKind.NUMBER : TokenKind.WORD));
+            }
+            i = end;
+        }
+        return tokens;
+    }
+
+    private static String stripEdgePunctuation(String word) {
+        int start = 0;
+        int end = word.length();
+        while (start < end && EDGE_PUNCTUATION.indexOf(word.charAt(start)) >= 0) start++;
+        while (end > start && EDGE_PUNCTUATION.indexOf(word.charAt(end - 1)) >= 0) end--;
+        return word.substring(start, end);
+    }
+
+    enum TokenKind { WORD, NUMBER, QUOTED }
+
+    record InputToken(String text, TokenKind kind) {
+        String key() {
+            return kind == TokenKind.QUOTED ? "'" + text + "'" : text.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record ParameterBinding(int parameterIndex, int tokenIndex, String prefix, String suffix,
+                                    Class<?> type, String learnedLiteral) {
+
+        Object fill(String literal) {
+            try {
+                if (type == Integer.class) {
+                    return Integer.parseInt(literal);
+                }
+                if (type == Long.class) {
+                    return Long.parseLong(literal);
+                }
+                if (type == Double.class) {
+                    return Double.parseDouble(literal);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            return prefix + literal + suffix;
+        }
+    }
+
+    private static final class QueryTemplate {
+        private final String key;
+        private final List<InputToken> tokens;
+        private final List<ParameterBinding> bindings;
+        private final ConversationalLLMResponse response;
+
+        private QueryTemplate(List<InputToken> tokens, List<ParameterBinding> bindings, ConversationalLLMResponse response) {
+            this.tokens = List.copyOf(tokens);
+            this.bindings = List.copyOf(bindings);
+            this.response = response;
+
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < tokens.size(); i++) {
+                if (key.length() > 0) key.append(' ');
+                key.append(slotAt(i) != null ? "{" + tokens.get(i).kind + "}" : tokens.get(i).key());
+            }
+            this.key = key.toString();
+        }
+
+        private ParameterBinding slotAt(int tokenIndex) {
+            for (ParameterBinding binding : bindings) {
+                if (binding.tokenIndex == tokenIndex) {
+                    return binding;
+                }
+            }
+            return null;
+        }
+
+        boolean matches(List<InputToken> input) {
+            if (input.size() != tokens.size()) {
+                return false;
+            }
+            for (int i = 0; i < tokens.size(); i++) {
+                InputToken expected = tokens.get(i);
+                InputToken actual = input.get(i);
+                if (slotAt(i) != null) {
+                    if (expected.kind != actual.kind) {
+                        return false;
+                    }
+                } else if (!expected.key().equals(actual.key())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        ConversationalLLMResponse instantiate(List<InputToken> input) {
+            Object[] parameters = response.getParameters().clone();
+            String humanResponse = response.getHumanResponse();
+
+            for (ParameterBinding binding : bindings) {
+                String literal = input.get(binding.tokenIndex).text;
+                Object value = binding.fill(literal);
+                if (value == null) {
+                    return null;
+                }
+                parameters[binding.parameterIndex] = value;
+                if (humanResponse != null) {
+                    humanResponse = humanResponse.replace(binding.learnedLiteral, literal);
+                }
+            }
+
+            return response.toBuilder()
+                    .parameters(parameters)
+                    .humanResponse(humanResponse)
+                    .build();
+        }
+    }
+}
@@ -1,14 +1,32 @@
 package com.conversationalai.config;
 
+import com.conversationalai.cache.LLMResponseCache;
+import com.conversationalai.cache.PageCursorStore;
+import com.conversationalai.cache.QueryResultCache;
+import com.conversationalai.cache.QueryTemplateCache;
 import com.conversationalai.core.ConversationalProcessor;
 import com.conversationalai.core.ConversationalService;
+import com.conversationalai.core.FastPathRouter;
+import com.conversationalai.core.SchemaRelevanceRanker;
 import com.conversationalai.database.DatabaseSchemaAnalyzer;
+import com.conversationalai.database.MutationExecutor;
+import com.conversationalai.database.QueryCostGuard;
 import com.conversationalai.database.QueryExecutor;
 import com.conversationalai.database.SchemaCache;
+import com.conversationalai.database.SchemaChangeDetector;
+import com.conversationalai.database.SchemaSnapshotStore;
+import com.conversationalai.database.SqlPaginator;
 import com.conversationalai.dto.ResponseFormatter;
+import com.conversationalai.entity.EntityScanner;
 import com.conversationalai.security.SecurityValidator;
 import com.conversationalai.service.LLMService;
 import com.conversationalai.serviceImpl.OllamaLLMService;
+import com.conversationalai.session.InMemorySessionStore;
+import com.conversationalai.session.SessionBackend;
+import com.conversationalai.session.SessionStore;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -16,6 +34,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 @EnableConfigurationProperties(ConversationalAIProperties.class)
@@ -29,8 +49,8 @@ public class ConversationalAIAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public SecurityValidator securityValidator() {
-        return new SecurityValidator();
+    public SecurityValidator securityValidator(ConversationalAIProperties properties) {
+        return new SecurityValidator(properties);
     }
 
     @Bean
@@ -41,14 +61,97 @@ public class ConversationalAIAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public DatabaseSchemaAnalyzer databaseSchemaAnalyzer(JdbcTemplate jdbcTemplate) {
-        return new DatabaseSchemaAnalyzer(jdbcTemplate);
+    public DatabaseSchemaAnalyzer databaseSchemaAnalyzer(JdbcTemplate jdbcTemplate, ConversationalAIProperties properties) {
+        return new DatabaseSchemaAnalyzer(jdbcTemplate, properties);
     }
 
     @Bean
     @ConditionalOnMissingBean
-    public QueryExecutor queryExecutor(JdbcTemplate jdbcTemplate) {
-        return new QueryExecutor(jdbcTemplate);
+    public SchemaChangeDetector schemaChangeDetector(DatabaseSchemaAnalyzer databaseSchemaAnalyzer) {
+        return new SchemaChangeDetector(databaseSchemaAnalyzer);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SchemaSnapshotStore schemaSnapshotStore(ConversationalAIProperties properties) {
+        return new SchemaSnapshotStore(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SchemaCache schemaCache(DatabaseSchemaAnalyzer databaseSchemaAnalyzer,
+                                   SchemaChangeDetector schemaChangeDetector,
+                                   SchemaSnapshotStore schemaSnapshotStore,
+                                   ConversationalAIProperties properties) {
+        return new SchemaCache(databaseSchemaAnalyzer, schemaChangeDetector, schemaSnapshotStore, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryExecutor queryExecutor(JdbcTemplate jdbcTemplate, SecurityValidator securityValidator,
+                                       QueryResultCache queryResultCache, ConversationalAIProperties properties) {
+        return new QueryExecutor(jdbcTemplate, securityValidator, queryResultCache, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SqlPaginator sqlPaginator(JdbcTemplate jdbcTemplate, SecurityValidator securityValidator,
+                                     ConversationalAIProperties properties) {
+        return new SqlPaginator(jdbcTemplate, securityValidator, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryCostGuard queryCostGuard(JdbcTemplate jdbcTemplate, ConversationalAIProperties properties) {
+        return new QueryCostGuard(jdbcTemplate, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MutationExecutor mutationExecutor(JdbcTemplate jdbcTemplate, QueryExecutor queryExecutor,
+                                             SecurityValidator securityValidator, SchemaCache schemaCache,
+                                             EntityScanner entityScanner, ConversationalAIProperties properties) {
+        return new MutationExecutor(jdbcTemplate, queryExecutor, securityValidator, schemaCache, entityScanner, properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PageCursorStore pageCursorStore(ConversationalAIProperties properties) {
+        return new PageCursorStore(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryResultCache queryResultCache(ConversationalAIProperties properties) {
+        return new QueryResultCache(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LLMResponseCache llmResponseCache(ConversationalAIProperties properties) {
+        return new LLMResponseCache(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public QueryTemplateCache queryTemplateCache(ConversationalAIProperties properties) {
+        return new QueryTemplateCache(properties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SchemaRelevanceRanker schemaRelevanceRanker(ConversationalAIProperties properties, EntityScanner entityScanner) {
+        return new SchemaRelevanceRanker(properties, entityScanner);
+    }
+
+    @Bean(name = "conversationalAIExecutor", destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "conversationalAIExecutor")
+    public ExecutorService conversationalAIExecutor(ConversationalAIProperties properties) {
+        ConversationalAIProperties.AsyncConfig async = properties.getAsync();
+        if (async.isVirtualThreads()) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(async.getPoolSize());
     }
 
     @Bean
@@ -59,8 +162,40 @@ public class ConversationalAIAutoConfiguration {
 
             QueryExecutor queryExecutor,
             SchemaCache schemaCache,
-            ResponseFormatter responseFormatter) {
-        return new ConversationalProcessor(llmService, securityValidator,  queryExecutor, schemaCache,responseFormatter);
+            ResponseFormatter responseFormatter,
+            LLMResponseCache llmResponseCache,
+            QueryTemplateCache queryTemplateCache,
+            SchemaRelevanceRanker schemaRelevanceRanker,
+            SqlPaginator sqlPaginator,
+            PageCursorStore pageCursorStore,
+            QueryCostGuard queryCostGuard,
+            MutationExecutor mutationExecutor,
+            SessionStore sessionStore,
+            FastPathRouter fastPathRouter,
+            EntityScanner entityScanner,
+            @Qualifier("conversationalAIExecutor") ExecutorService conversationalAIExecutor) {
+        return new ConversationalProcessor(llmService, securityValidator,  queryExecutor, schemaCache,responseFormatter,
+                llmResponseCache, queryTemplateCache, schemaRelevanceRanker, sqlPaginator, pageCursorStore,
+                queryCostGuard, mutationExecutor, sessionStore, fastPathRouter, entityScanner,
+                conversationalAIExecutor);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FastPathRouter fastPathRouter(ConversationalAIProperties properties, EntityScanner entityScanner) {
+        return new FastPathRouter(properties, entityScanner);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public EntityScanner entityScanner(ConversationalAIProperties properties, BeanFactory beanFactory) {
+        return new EntityScanner(properties, beanFactory);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SessionStore sessionStore(ConversationalAIProperties properties, ObjectProvider<SessionBackend> sessionBackend) {
+        return new InMemorySessionStore(properties, sessionBackend.getIfAvailable());
     }
 
     @Bean
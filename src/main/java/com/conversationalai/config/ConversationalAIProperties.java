@@ -10,6 +10,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import lombok.Data;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Data
 @ConfigurationProperties(prefix = "conversational.ai")
 public class ConversationalAIProperties {
@@ -17,13 +20,31 @@ public class ConversationalAIProperties {
     private LLMConfig llm = new LLMConfig();
     private SecurityConfig security = new SecurityConfig();
     private DatabaseConfig database = new DatabaseConfig();
+    private CacheConfig cache = new CacheConfig();
+    private SessionConfig session = new SessionConfig();
+    private FastPathConfig fastPath = new FastPathConfig();
+    private EntityConfig entity = new EntityConfig();
+    private AsyncConfig async = new AsyncConfig();
+    private PromptConfig prompt = new PromptConfig();
+    private CostGuardConfig costGuard = new CostGuardConfig();
 
     @Data
     public static class LLMConfig {
         private String baseUrl = "http://localhost:11434";
         private String model = "llama3.2";
         private int timeout = 30000;
+        private int connectTimeout = 5000;
+        private int maxConnections = 20;
+        private int maxConnectionsPerRoute = 10;
+        private long idleConnectionTimeout = 30000;
         private double temperature = 0.1;
+        private boolean streaming = false;
+        private String keepAlive = "30m";
+        /** Requests run concurrently per model; match the server's parallel slots (OLLAMA_NUM_PARALLEL). */
+        private int parallelSlots = 4;
+        private Map<String, Integer> modelParallelSlots = new HashMap<>();
+        private int maxQueuedRequests = 64;
+        private long queueTimeout = 10000;
     }
 
     @Data
@@ -31,7 +52,9 @@ public class ConversationalAIProperties {
         private boolean enableSafetyCheck = true;
         private int maxRecordsPerOperation = 100;
         private String[] allowedOperations = {"CREATE", "READ", "UPDATE", "DELETE"};
-        private String[] blockedKeywords = {"DROP", "TRUNCATE", "ALTER", "GRANT", "REVOKE"};
+        private String[] blockedKeywords = {"DROP", "TRUNCATE", "ALTER", "GRANT", "REVOKE", "EXEC", "EXECUTE"};
+        private boolean enforceSchemaAllowList = true;
+        private int parseCacheSize = 1000;
     }
 
     @Data
@@ -39,5 +62,87 @@ public class ConversationalAIProperties {
         private boolean autoDiscoverSchema = true;
         private String[] includeTables = {};
         private String[] excludeTables = {};
+        private int introspectionParallelism = 3;
+        private long schemaCacheTtlMs = 300_000;
+        private long schemaRefreshAheadMs = 60_000;
+        private boolean incrementalRefresh = true;
+        private int fullRefreshInterval = 12;
+        private String schemaSnapshotPath;
+        private int fetchSize = 500;
+        private boolean countTruncatedResults = true;
+        private boolean paginationEnabled = true;
+        private int pageSize = 10;
+        /** Keep below security.max-records-per-operation, or large mutations never reach the chunked path. */
+        private int mutationChunkSize = 50;
+        private int statementCacheSize = 500;
+    }
+
+    @Data
+    public static class CacheConfig {
+        private boolean planCacheEnabled = true;
+        private int planCacheMaxSize = 500;
+        private long planCacheTtlMs = 600_000;
+        private String[] planCacheIntents = {"READ", "LIST", "COUNT"};
+        private boolean templateCacheEnabled = true;
+        private int templateCacheMaxSize = 200;
+        private int pageCursorMaxSize = 1000;
+        private long pageCursorTtlMs = 900_000;
+        private boolean resultCacheEnabled = true;
+        private long resultCacheTtlMs = 30_000;
+        private long resultCacheMaxBytes = 16 * 1024 * 1024;
+        /** Per-table overrides of {@code result-cache-ttl-ms}; 0 disables result caching for a table. */
+        private Map<String, Long> resultCacheTableTtlMs = new HashMap<>();
+    }
+
+    @Data
+    public static class SessionConfig {
+        private boolean enabled = true;
+        private int maxSessions = 10_000;
+        private long idleTtlMs = 1_800_000;
+        private int maxHistoryTurns = 6;
+        /** Estimated tokens of conversation history sent with a follow-up turn. */
+        private int tokenBudget = 300;
+    }
+
+    @Data
+    public static class FastPathConfig {
+        private boolean enabled = true;
+        /** Exact and inflected table names score 1.0 and 0.95, configured synonyms 0.95, one-typo matches 0.7. */
+        private double minConfidence = 0.9;
+        /** Extra names for tables, e.g. {@code clients: customers}. */
+        private Map<String, String> synonyms = new HashMap<>();
+    }
+
+    @Data
+    public static class EntityConfig {
+        /** Packages searched for {@code @ConversationalEntity}; defaults to the auto-configuration packages. */
+        private String[] basePackages = {};
+        /**
+         * Read the build-time index written by {@code ConversationalEntityIndexer} when one is on the classpath.
+         * Turn off when some entity classes are compiled without the processor, which the index would miss.
+         */
+        private boolean useIndex = true;
+    }
+
+    @Data
+    public static class AsyncConfig {
+        private boolean virtualThreads = true;
+        private int poolSize = 16;
+    }
+
+    @Data
+    public static class PromptConfig {
+        private boolean schemaPruningEnabled = true;
+        private int maxTables = 8;
+        private int maxSchemaTokens = 2000;
+    }
+
+    @Data
+    public static class CostGuardConfig {
+        private boolean enabled = true;
+        private long maxEstimatedRows = 1_000_000;
+        private double maxEstimatedCost = 1_000_000;
+        private int explainCacheSize = 500;
+        private long explainCacheTtlMs = 300_000;
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,23 @@
 package com.conversationalai.core;
 
+import com.conversationalai.cache.LLMResponseCache;
+import com.conversationalai.cache.PageCursorStore;
+import com.conversationalai.cache.QueryTemplateCache;
 import com.conversationalai.database.DatabaseSchemaAnalyzer;
+import com.conversationalai.database.MutationExecutor;
+import com.conversationalai.database.MutationLimitExceededException;
+import com.conversationalai.database.QueryCostExceededException;
+import com.conversationalai.database.QueryCostGuard;
 import com.conversationalai.database.QueryExecutor;
 import com.conversationalai.database.SchemaCache;
+import com.conversationalai.database.SqlPaginator;
 import com.conversationalai.dto.*;
+import com.conversationalai.entity.EntityScanner;
 import com.conversationalai.security.SecurityValidator;
+import com.conversationalai.session.ConversationState;
+import com.conversationalai.session.SessionStore;
 import com.conversationalai.service.LLMService;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 import java.util.List;
@@ -14,6 +26,14 @@ import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 @Slf4j
 @Component
 public class ConversationalProcessor {
@@ -23,17 +43,77 @@ public class ConversationalProcessor {
     private final QueryExecutor queryExecutor;
     private final SchemaCache schemaCache;
     private final ResponseFormatter responseFormatter;
+    private final LLMResponseCache llmResponseCache;
+    private final QueryTemplateCache queryTemplateCache;
+    private final SchemaRelevanceRanker schemaRelevanceRanker;
+    private final SqlPaginator sqlPaginator;
+    private final PageCursorStore pageCursorStore;
+    private final QueryCostGuard queryCostGuard;
+    private final MutationExecutor mutationExecutor;
+    private final SessionStore sessionStore;
+    private final FastPathRouter fastPathRouter;
+    private final EntityScanner entityScanner;
+    private final ExecutorService executor;
+
+    // Identical concurrent reads share one plan and one execution; neither holds anything once it completes.
+    private final SingleFlight<String, ConversationalLLMResponse> planFlights = new SingleFlight<>();
+    private final SingleFlight<ReadKey, Object> readFlights = new SingleFlight<>();
+
+    private static final Set<String> READ_INTENTS = Set.of("READ", "LIST", "COUNT");
+    /*
+     * process() blocks on the early result, and may itself be running on the conversational executor. Early
+     * reads get their own virtual thread so a bounded pool cannot fill up with requests waiting on work
+     * queued behind them.
+     */
+    private static final Executor EARLY_EXECUTOR = Thread::startVirtualThread;
+    private static final Set<String> MORE_REQUESTS = Set.of("more", "show more", "show me more", "next", "next page",
+            "show next page", "load more", "continue");
+    /** Words by which a request leans on earlier turns: "show them again", "what about Paris", "the same for Bob". */
+    private static final Pattern REFERS_BACK = Pattern.compile(
+            "^\\s*(and|or|but|only|just)\\b|\\b(it|its|them|they|those|these|that|same|again|also|instead"
+                    + "|previous|above|ones|too|else|what about|how about)\\b",
+            Pattern.CASE_INSENSITIVE);
 
     public ConversationalProcessor(LLMService llmService,
                                    SecurityValidator securityValidator,
                                    QueryExecutor queryExecutor,
                                    SchemaCache schemaCache,
-                                   ResponseFormatter responseFormatter) {
+                                   ResponseFormatter responseFormatter,
+                                   LLMResponseCache llmResponseCache,
+                                   QueryTemplateCache queryTemplateCache,
+                                   SchemaRelevanceRanker schemaRelevanceRanker,
+                                   SqlPaginator sqlPaginator,
+                                   PageCursorStore pageCursorStore,
+                                   QueryCostGuard queryCostGuard,
+                                   MutationExecutor mutationExecutor,
+                                   SessionStore sessionStore,
+                                   FastPathRouter fastPathRouter,
+                                   EntityScanner entityScanner,
+                                   @Qualifier("conversationalAIExecutor") ExecutorService executor) {
         this.llmService = llmService;
         this.securityValidator = securityValidator;
         this.queryExecutor = queryExecutor;
         this.schemaCache = schemaCache;
         this.responseFormatter = responseFormatter;
+        this.llmResponseCache = llmResponseCache;
+        this.queryTemplateCache = queryTemplateCache;
+        this.schemaRelevanceRanker = schemaRelevanceRanker;
+        this.sqlPaginator = sqlPaginator;
+        this.pageCursorStore = pageCursorStore;
+        this.queryCostGuard = queryCostGuard;
+        this.mutationExecutor = mutationExecutor;
+        this.sessionStore = sessionStore;
+        this.fastPathRouter = fastPathRouter;
+        this.entityScanner = entityScanner;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs {@link #process(ConversationalRequest)} on the conversational executor, which uses virtual threads
+     * by default so that blocking on the LLM and JDBC does not tie up platform threads.
+     */
+    public CompletableFuture<ConversationalResponse> processAsync(ConversationalRequest request) {
+        return CompletableFuture.supplyAsync(() -> process(request), executor);
     }
 
     public ConversationalResponse process(ConversationalRequest request) {
@@ -41,58 +121,359 @@ public class ConversationalProcessor {
 
         try {
 
-            DatabaseSchema schema = schemaCache.getSchema();
+            String continuationToken = continuationTokenFor(request);
+            if (continuationToken != null) {
+                return processNextPage(request, continuationToken, startTime);
+            }
 
+            SchemaCache.SchemaSnapshot schemaSnapshot = schemaCache.getSnapshot();
+            ConversationState session = sessionFor(request);
 
-            ConversationalLLMRequest llmRequest = ConversationalLLMRequest.builder()
-                    .userInput(request.getUserInput())
-                    .schema(schema)
-                    .build();
-
-            ConversationalLLMResponse llmResponse = llmService.processConversationalRequest(llmRequest);
+            EarlyExecution earlyExecution = new EarlyExecution();
+            ConversationalLLMResponse llmResponse = session != null ? completePendingCreate(request, session) : null;
+            if (llmResponse == null) {
+                llmResponse = dependsOnSession(session, request)
+                        ? resolvePlan(request, session, schemaSnapshot, earlyExecution)
+                        : coalescedPlan(request, schemaSnapshot, earlyExecution);
+            }
 
             if (!llmResponse.isValid()) {
                 return buildErrorResponse(llmResponse.getHumanResponse(), startTime);
             }
 
             if (llmResponse.isNeedsMoreInfo()) {
+                rememberTurn(session, request, llmResponse);
                 return buildMissingInfoResponse(llmResponse.getMissingFields(), startTime, llmResponse.getHumanResponse());
             }
 
-            if (!securityValidator.isIntentAllowed(llmResponse.getIntent()) ||
-                    !securityValidator.isQuerySafe(llmResponse.getSql())) {
+            if (!securityValidator.isPlanSafe(llmResponse.getIntent(), llmResponse.getSql(), schemaSnapshot.schema())) {
                 return buildErrorResponse("🚫 **Access Denied**\n\nThis operation is not permitted for security reasons. Please contact your administrator if you need access to this functionality.", startTime);
             }
 
 
-            Object result = executeQuery(llmResponse.getIntent(), llmResponse.getSql(), llmResponse.getParameters());
+            Object result = earlyExecution.resultFor(llmResponse);
+            if (result == null) {
+                result = executeQuery(llmResponse.getIntent(), llmResponse.getSql(), llmResponse.getParameters(),
+                        llmResponse.getTableName());
+            }
+            result = ownResult(result, request.getSessionId());
 
 
+            rememberTurn(session, request, llmResponse);
             String formattedResponse = formatResponseByType(llmResponse.getIntent(), result, llmResponse.getHumanResponse());
 
-            return ConversationalResponse.builder()
+            ConversationalResponse.ConversationalResponseBuilder response = ConversationalResponse.builder()
                     .response(formattedResponse)
                     .success(true)
                     .intent(llmResponse.getIntent())
                     .operation(llmResponse.getIntent())
-                    .data(result instanceof List ? (List<Map<String, Object>>) result : null)
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .build();
+                    .processingTimeMs(System.currentTimeMillis() - startTime);
+            if (result instanceof QueryResult queryResult) {
+                pageCursorStore.rememberForSession(request.getSessionId(), queryResult.getContinuationToken());
+                response.result(queryResult)
+                        .data(queryResult.getRows())
+                        .truncated(queryResult.isTruncated())
+                        .totalCount(queryResult.getTotalCount())
+                        .continuationToken(queryResult.getContinuationToken());
+            }
+            return response.build();
 
+        } catch (QueryCostExceededException e) {
+            return buildErrorResponse("⚠️ **Request Too Broad**\n\nThis request would have to scan about " +
+                    e.getEstimate().rows() + " records, which is more than I'm allowed to process at once. " +
+                    "Please narrow it down with more specific criteria.", startTime);
+        } catch (MutationLimitExceededException e) {
+            return buildErrorResponse("⚠️ **Too Many Records**\n\nThis change would affect " + e.getMatchingRows() +
+                    " records, which is more than I'm allowed to change at once. Nothing was modified. " +
+                    "Please narrow it down with more specific criteria.", startTime);
         } catch (Exception e) {
             log.error("Error processing request", e);
             return buildErrorResponse("**System Error**\n\nI encountered an unexpected error while processing your request. Please try again or contact support if the problem persists.", startTime);
         }
     }
 
+    /**
+     * An explicit token, or the session's last token when the user just asks for more. Either way the
+     * next page is served from the stored cursor without another LLM round trip.
+     */
+    private String continuationTokenFor(ConversationalRequest request) {
+        if (request.getContinuationToken() != null) {
+            return request.getContinuationToken();
+        }
+        if (request.getSessionId() != null && request.getUserInput() != null
+                && MORE_REQUESTS.contains(InputNormalizer.normalizeIgnoringCase(request.getUserInput()))) {
+            return pageCursorStore.lastTokenForSession(request.getSessionId());
+        }
+        return null;
+    }
+
+    private ConversationalResponse processNextPage(ConversationalRequest request, String continuationToken, long startTime) {
+        SqlPaginator.PageCursor cursor = pageCursorStore.get(continuationToken, request.getSessionId());
+        if (cursor == null) {
+            return buildErrorResponse("⌛ **Results Expired**\n\nThese results are no longer available. Please run your search again.", startTime);
+        }
+
+        QueryResult result = ownPage(executePage(sqlPaginator.nextPage(cursor)), request.getSessionId());
+        pageCursorStore.rememberForSession(request.getSessionId(), result.getContinuationToken());
+
+        return ConversationalResponse.builder()
+                .response(responseFormatter.formatDataResponse("LIST", result, "Here are more results."))
+                .success(true)
+                .intent("LIST")
+                .operation("LIST")
+                .result(result)
+                .data(result.getRows())
+                .truncated(result.isTruncated())
+                .totalCount(result.getTotalCount())
+                .continuationToken(result.getContinuationToken())
+                .processingTimeMs(System.currentTimeMillis() - startTime)
+                .build();
+    }
+
+    private ConversationalLLMResponse resolvePlan(ConversationalRequest request, ConversationState session,
+                                                  SchemaCache.SchemaSnapshot schemaSnapshot,
+                                                  Consumer<ConversationalLLMResponse> planListener) {
+        String userInput = request.getUserInput();
+        // Fast-path shapes name their table outright, so they are safe to route in a follow-up turn too.
+        ConversationalLLMResponse routed = fastPathRouter.route(userInput, schemaSnapshot.schema());
+        if (routed != null) {
+            return routed;
+        }
+
+        if (session != null) {
+            // A follow-up depends on the earlier turns, so it neither uses nor feeds the input-keyed plan caches.
+            String focus = session.getLastTable() != null ? userInput + " " + session.getLastTable() : userInput;
+            DatabaseSchema schema = schemaRelevanceRanker.prune(focus, schemaSnapshot.schema());
+            ConversationalLLMRequest llmRequest = ConversationalLLMRequest.builder()
+                    .userInput(userInput)
+                    .schema(schema)
+                    .schemaVersion(schemaSnapshot.version())
+                    .entities(entityScanner.indexFor(schemaSnapshot.schema()).entitiesFor(schema))
+                    .conversationContext(conversationContext(session, request.getContext()))
+                    .priority(request.getPriority())
+                    .build();
+            return mergeProvidedFields(session, llmService.processConversationalRequest(llmRequest, planListener));
+        }
+
+        String schemaFingerprint = schemaSnapshot.fingerprint();
+
+        ConversationalLLMResponse cached = llmResponseCache.get(userInput, schemaFingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        ConversationalLLMResponse templated = queryTemplateCache.match(userInput, schemaFingerprint);
+        if (templated != null) {
+            llmResponseCache.put(userInput, schemaFingerprint, templated);
+            return templated;
+        }
+
+        DatabaseSchema schema = schemaRelevanceRanker.prune(userInput, schemaSnapshot.schema());
+        ConversationalLLMRequest llmRequest = ConversationalLLMRequest.builder()
+                .userInput(userInput)
+                .schema(schema)
+                .schemaVersion(schemaSnapshot.version())
+                .entities(entityScanner.indexFor(schemaSnapshot.schema()).entitiesFor(schema))
+                .priority(request.getPriority())
+                .build();
+
+        ConversationalLLMResponse llmResponse = llmService.processConversationalRequest(llmRequest, planListener);
+        llmResponseCache.put(userInput, schemaFingerprint, llmResponse);
+        queryTemplateCache.learn(userInput, schemaFingerprint, llmResponse);
+        return llmResponse;
+    }
+
+    /**
+     * Plans a request that does not depend on earlier turns, sharing one plan among identical requests
+     * in flight for the same schema version. A shared plan that turns out to be a mutation is not used:
+     * each such request is planned and executed on its own.
+     */
+    private ConversationalLLMResponse coalescedPlan(ConversationalRequest request, SchemaCache.SchemaSnapshot schemaSnapshot,
+                                                    EarlyExecution earlyExecution) {
+        String key = InputNormalizer.normalize(request.getUserInput()) + "@" + schemaSnapshot.version();
+        if (request.getPriority() == ConversationalLLMRequest.Priority.BACKGROUND) {
+            // Kept apart so that an interactive request never waits behind a background model call.
+            key += "/background";
+        }
+        SingleFlight.Result<ConversationalLLMResponse> shared =
+                planFlights.run(key, () -> resolvePlan(request, null, schemaSnapshot, earlyExecution));
+        ConversationalLLMResponse plan = shared.value();
+        if (shared.leader() || plan.getIntent() == null || READ_INTENTS.contains(plan.getIntent().toUpperCase())) {
+            if (!shared.leader()) {
+                log.debug("Shared in-flight plan for: {}", key);
+            }
+            return plan;
+        }
+        return resolvePlan(request, null, schemaSnapshot, earlyExecution);
+    }
+
+    /**
+     * The session's state when it has earlier turns, or {@code null} for a first turn and for requests
+     * without a session id. First turns are resolved like sessionless ones.
+     */
+    private ConversationState sessionFor(ConversationalRequest request) {
+        if (sessionStore == null || request.getSessionId() == null) {
+            return null;
+        }
+        ConversationState state = sessionStore.load(request.getSessionId());
+        if (state != null && !belongsTo(state, request)) {
+            log.warn("Session {} presented by a different user; ignoring its state", request.getSessionId());
+            return null;
+        }
+        return state;
+    }
+
+    /**
+     * Whether earlier turns change what this request means: fields are still pending, or the request
+     * refers back to them. Self-contained requests in a session are planned like sessionless ones, so they
+     * share the plan caches and in-flight plans.
+     */
+    private boolean dependsOnSession(ConversationState session, ConversationalRequest request) {
+        return session != null && (session.hasPendingFields()
+                || (request.getUserInput() != null && REFERS_BACK.matcher(request.getUserInput()).find()));
+    }
+
+    /** A session is only continued by the user it was started for, when both sides name a user. */
+    private boolean belongsTo(ConversationState state, ConversationalRequest request) {
+        return state.getUserId() == null || request.getUserId() == null || state.getUserId().equals(request.getUserId());
+    }
+
+    /**
+     * Answers a follow-up to a MISSING_INFO CREATE without the model when the user just supplies the
+     * missing values. Returns {@code null} when the message does not look like such an answer.
+     */
+    private ConversationalLLMResponse completePendingCreate(ConversationalRequest request, ConversationState session) {
+        if (!session.hasPendingFields() || !"CREATE".equalsIgnoreCase(session.getLastIntent())) {
+            return null;
+        }
+        DatabaseSchema.TableInfo table = findTable(session.getLastTable());
+        if (table == null) {
+            return null;
+        }
+
+        Map<String, Object> supplied = MissingFieldResolver.extract(request.getUserInput(), session.getPendingMissingFields(), table);
+        if (supplied.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> provided = new LinkedHashMap<>(session.getProvidedFields());
+        provided.putAll(supplied);
+        String[] stillMissing = Arrays.stream(session.getPendingMissingFields())
+                .filter(field -> !supplied.containsKey(field))
+                .toArray(String[]::new);
+
+        ConversationalLLMResponse.ConversationalLLMResponseBuilder response = ConversationalLLMResponse.builder()
+                .valid(true)
+                .intent("CREATE")
+                .tableName(session.getLastTable())
+                .providedFields(provided);
+        if (stillMissing.length > 0) {
+            return response.needsMoreInfo(true).missingFields(stillMissing).build();
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        provided.forEach((field, value) -> {
+            String column = MissingFieldResolver.columnName(table, field);
+            if (column != null) {
+                columns.add(column);
+                values.add(value);
+            }
+        });
+        if (columns.isEmpty()) {
+            return null;
+        }
+
+        log.debug("Completed pending CREATE on {} from follow-up without an LLM call", session.getLastTable());
+        return response
+                .sql("INSERT INTO " + session.getLastTable() + " (" + String.join(", ", columns) + ") VALUES (" +
+                        String.join(", ", Collections.nCopies(columns.size(), "?")) + ")")
+                .parameters(values.toArray())
+                .humanResponse("Thanks, I have everything I need to create the record.")
+                .build();
+    }
+
+    private ConversationalLLMResponse mergeProvidedFields(ConversationState session, ConversationalLLMResponse response) {
+        if (!response.isNeedsMoreInfo() || !session.hasPendingFields()
+                || response.getTableName() == null || !response.getTableName().equalsIgnoreCase(session.getLastTable())) {
+            return response;
+        }
+        Map<String, Object> provided = new LinkedHashMap<>(session.getProvidedFields());
+        if (response.getProvidedFields() != null) {
+            provided.putAll(response.getProvidedFields());
+        }
+        return response.toBuilder().providedFields(provided).build();
+    }
+
+    private String conversationContext(ConversationState session, Object clientContext) {
+        StringBuilder context = new StringBuilder();
+        if (!session.getHistory().isEmpty()) {
+            context.append("Earlier turns:\n");
+            session.getHistory().forEach(turn -> context.append("- ").append(turn).append('\n'));
+        }
+        if (session.getLastSql() != null) {
+            context.append("Last query: ").append(session.getLastSql());
+            if (session.getLastParameters() != null && session.getLastParameters().length > 0) {
+                context.append(" with parameters ").append(Arrays.toString(session.getLastParameters()));
+            }
+            context.append('\n');
+        }
+        if (session.hasPendingFields()) {
+            context.append("Pending ").append(session.getLastIntent()).append(" on ").append(session.getLastTable())
+                    .append(", still missing: ").append(String.join(", ", session.getPendingMissingFields()));
+            if (!session.getProvidedFields().isEmpty()) {
+                context.append("; already provided: ").append(session.getProvidedFields());
+            }
+            context.append('\n');
+        }
+        if (clientContext != null) {
+            context.append("Client context: ").append(clientContext).append('\n');
+        }
+        return context.toString().trim();
+    }
+
+    private void rememberTurn(ConversationState session, ConversationalRequest request, ConversationalLLMResponse plan) {
+        if (sessionStore == null || request.getSessionId() == null) {
+            return;
+        }
+
+        if (session == null) {
+            ConversationState existing = sessionStore.load(request.getSessionId());
+            if (existing != null && !belongsTo(existing, request)) {
+                return;
+            }
+        }
+        ConversationState state = session != null ? session : ConversationState.builder()
+                .sessionId(request.getSessionId())
+                .build();
+        state.setUserId(request.getUserId());
+        state.setLastIntent(plan.getIntent());
+        state.setLastTable(plan.getTableName());
+
+        String outcome;
+        if (plan.isNeedsMoreInfo()) {
+            state.setPendingMissingFields(plan.getMissingFields());
+            state.setProvidedFields(plan.getProvidedFields() != null ? new LinkedHashMap<>(plan.getProvidedFields()) : new LinkedHashMap<>());
+            outcome = "asked for " + String.join(", ", plan.getMissingFields() != null ? plan.getMissingFields() : new String[0]);
+        } else {
+            state.setLastSql(plan.getSql());
+            state.setLastParameters(plan.getParameters());
+            state.setPendingMissingFields(null);
+            state.setProvidedFields(new LinkedHashMap<>());
+            outcome = plan.getIntent() + " " + plan.getTableName();
+        }
+        state.getHistory().add("\"" + request.getUserInput() + "\" -> " + outcome);
+        sessionStore.save(state);
+    }
+
     private String formatResponseByType(String intent, Object result, String baseMessage) {
         switch (intent.toUpperCase()) {
             case "READ":
             case "LIST":
-                return responseFormatter.formatDataResponse(intent, (List<Map<String, Object>>) result, baseMessage);
+                return responseFormatter.formatDataResponse(intent, (QueryResult) result, baseMessage);
 
             case "COUNT":
-                return responseFormatter.formatCountResponse((List<Map<String, Object>>) result, baseMessage);
+                return responseFormatter.formatCountResponse((QueryResult) result, baseMessage);
 
             case "UPDATE":
             case "DELETE":
@@ -131,19 +512,128 @@ public class ConversationalProcessor {
                 .build();
     }
 
-    private Object executeQuery(String intent, String sql, Object[] parameters) {
+    private Object executeQuery(String intent, String sql, Object[] parameters, String tableName) {
         switch (intent.toUpperCase()) {
             case "CREATE":
+                return Map.of("affectedRows", queryExecutor.executeUpdate(sql, parameters, tableName));
             case "UPDATE":
             case "DELETE":
-                int affectedRows = queryExecutor.executeUpdate(sql, parameters);
+                queryCostGuard.check(sql, parameters);
+                int affectedRows = mutationExecutor.execute(intent, sql, parameters, findTable(tableName));
                 return Map.of("affectedRows", affectedRows);
             case "READ":
             case "LIST":
             case "COUNT":
-                return queryExecutor.executeQuery(sql, parameters);
+                ReadKey key = new ReadKey(intent.toUpperCase(), sql, parameters != null ? Arrays.asList(parameters) : List.of());
+                return readFlights.run(key, () -> executeRead(key.intent(), sql, parameters, tableName)).value();
             default:
                 throw new IllegalArgumentException("Unsupported intent: " + intent);
         }
     }
+
+    private Object executeRead(String intent, String sql, Object[] parameters, String tableName) {
+        if (!"COUNT".equals(intent)) {
+            SqlPaginator.PagedQuery page = sqlPaginator.firstPage(sql, parameters, findTable(tableName));
+            if (page != null) {
+                return executePage(page);
+            }
+        }
+        queryCostGuard.check(sql, parameters);
+        return queryExecutor.executeBoundedQuery(sql, parameters);
+    }
+
+    private PageRead executePage(SqlPaginator.PagedQuery page) {
+        // Costed without the page's LIMIT/keyset: under a Limit node the planner only reports the page size,
+        // which hides a full scan needed to find the matching rows.
+        queryCostGuard.check(page.baseSql(), page.baseParameters());
+        QueryResult result = queryExecutor.executePage(page);
+        return new PageRead(result, sqlPaginator.cursorAfter(page, result));
+    }
+
+    /**
+     * Reads may be shared by coalesced requests, so each request gets its own copy of the result and
+     * its own continuation token.
+     */
+    private Object ownResult(Object result, String sessionId) {
+        if (result instanceof PageRead read) {
+            return ownPage(read, sessionId);
+        }
+        return result instanceof QueryResult shared ? shared.copy() : result;
+    }
+
+    private QueryResult ownPage(PageRead read, String sessionId) {
+        QueryResult own = read.result().copy();
+        if (read.next() != null) {
+            own.setContinuationToken(pageCursorStore.save(read.next(), sessionId));
+        }
+        return own;
+    }
+
+    private DatabaseSchema.TableInfo findTable(String tableName) {
+        if (tableName == null) {
+            return null;
+        }
+        Map<String, DatabaseSchema.TableInfo> tables = schemaCache.getSchema().getTables();
+        DatabaseSchema.TableInfo table = tables.get(tableName);
+        if (table != null) {
+            return table;
+        }
+        return tables.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(tableName))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private record ReadKey(String intent, String sql, List<Object> parameters) {
+    }
+
+    /** A page as read, before a continuation token is issued for {@code next}. */
+    private record PageRead(QueryResult result, SqlPaginator.PageCursor next) {
+    }
+
+    /**
+     * Runs a read plan published early by a streaming LLM while the model is still generating
+     * the rest of its answer. Mutations are never started early: the final response may still differ.
+     */
+    private class EarlyExecution implements Consumer<ConversationalLLMResponse> {
+        private volatile ConversationalLLMResponse plan;
+        private volatile CompletableFuture<Object> result;
+
+        @Override
+        public void accept(ConversationalLLMResponse earlyPlan) {
+            if (!READ_INTENTS.contains(earlyPlan.getIntent().toUpperCase()) ||
+                    !securityValidator.isPlanSafe(earlyPlan.getIntent(), earlyPlan.getSql(), schemaCache.getSchema())) {
+                return;
+            }
+
+            log.debug("Dispatching early plan before LLM response completed: {}", earlyPlan.getSql());
+            plan = earlyPlan;
+            result = CompletableFuture.supplyAsync(
+                    () -> executeQuery(earlyPlan.getIntent(), earlyPlan.getSql(), earlyPlan.getParameters(),
+                            earlyPlan.getTableName()),
+                    EARLY_EXECUTOR);
+        }
+
+        Object resultFor(ConversationalLLMResponse finalPlan) {
+            if (result == null) {
+                return null;
+            }
+            if (!plan.getIntent().equalsIgnoreCase(finalPlan.getIntent()) ||
+                    !plan.getSql().equals(finalPlan.getSql()) ||
+                    !Arrays.equals(plan.getParameters(), finalPlan.getParameters())) {
+                log.debug("Final plan differs from early plan, discarding early result");
+                result.cancel(false);
+                return null;
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
 }
\ No newline at end of file
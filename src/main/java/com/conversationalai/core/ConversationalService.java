@@ -5,6 +5,8 @@ import com.conversationalai.dto.ConversationalRequest;
 import com.conversationalai.dto.ConversationalResponse;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class ConversationalService {
 
@@ -31,4 +33,34 @@ public class ConversationalService {
 
         return processor.process(request);
     }
+
+    /**
+     * Fetches the next page of an earlier result using the continuation token from its response.
+     */
+    public ConversationalResponse processNextPage(String continuationToken, String sessionId) {
+        ConversationalRequest request = ConversationalRequest.builder()
+                .sessionId(sessionId)
+                .continuationToken(continuationToken)
+                .build();
+
+        return processor.process(request);
+    }
+
+    public CompletableFuture<ConversationalResponse> processRequestAsync(String userInput) {
+        return processRequestAsync(userInput, null, null);
+    }
+
+    public CompletableFuture<ConversationalResponse> processRequestAsync(String userInput, String sessionId) {
+        return processRequestAsync(userInput, sessionId, null);
+    }
+
+    public CompletableFuture<ConversationalResponse> processRequestAsync(String userInput, String sessionId, String userId) {
+        ConversationalRequest request = ConversationalRequest.builder()
+                .userInput(userInput)
+                .sessionId(sessionId)
+                .userId(userId)
+                .build();
+
+        return processor.processAsync(request);
+    }
 }
@@ -0,0 +1,281 @@
+package com.conversationalai.core;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.ConversationalLLMResponse;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.FastPathStats;
+import com.conversationalai.entity.EntityScanner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plans trivial requests without the model: "count users", "list all products", "show order 42".
+ * The whole request has to match one of a few fixed shapes and name a single table, so anything with
+ * extra conditions ("orders from last week") falls through to the LLM. Table references are scored by
+ * how they were matched, and only matches at or above {@code min-confidence} are routed. Synonyms come
+ * from configuration and from {@code @ConversationalEntity} classes.
+ */
+@Slf4j
+@Component
+public class FastPathRouter {
+
+    private static final Pattern BY_KEY = Pattern.compile(
+            "^(?:(?:show|get|find|display|fetch|open|look ?up)(?: me)? )?(?:the )?(.+?) (?:with )?(?:(?:id|number|no\\.?)(?: of)? )?#?(\\d+|'[^']+'|\"[^\"]+\")$");
+    private static final Pattern COUNT = Pattern.compile(
+            "^(?:count(?: of)?(?: all)?|how many|number of|total(?: number of)?)(?: the)? (.+?)(?: (?:are there|do we have|exist|in total|there are))?$");
+    private static final Pattern LIST = Pattern.compile(
+            "^(?:(?:list|show|display|get|fetch|give)(?: me)?(?: all| every)?(?: of)?(?: the)? |all (?:the )?)(.+?)(?: (?:records|rows|entries))?$");
+
+    private static final double EXACT = 1.0;
+    private static final double INFLECTED = 0.95;
+    private static final double SYNONYM = 0.95;
+    private static final double FUZZY = 0.7;
+
+    private final ConversationalAIProperties.FastPathConfig config;
+    private final EntityScanner entityScanner;
+    private final AtomicReference<TableNames> names = new AtomicReference<>();
+
+    private final AtomicLong routed = new AtomicLong();
+    private final AtomicLong lowConfidence = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    public FastPathRouter(ConversationalAIProperties properties, EntityScanner entityScanner) {
+        this.config = properties.getFastPath();
+        this.entityScanner = entityScanner;
+    }
+
+    /** Returns a ready plan, or {@code null} when the request should go to the LLM. */
+    public ConversationalLLMResponse route(String userInput, DatabaseSchema schema) {
+        if (!config.isEnabled() || schema == null || schema.getTables() == null) {
+            return null;
+        }
+
+        String input = InputNormalizer.normalizeIgnoringCase(userInput);
+        TableNames tableNames = namesFor(schema);
+
+        ConversationalLLMResponse plan = null;
+        TableMatch match = null;
+
+        Matcher matcher = BY_KEY.matcher(input);
+        if (matcher.matches()) {
+            match = tableNames.resolve(matcher.group(1));
+            if (match != null) {
+                plan = readByKey(match, schema.getTables().get(match.table()), matcher.group(2));
+            }
+        }
+        if (plan == null && (matcher = COUNT.matcher(input)).matches()) {
+            match = tableNames.resolve(matcher.group(1));
+            if (match != null) {
+                plan = plan("COUNT", match.table(), "SELECT COUNT(*) FROM " + match.table(), new Object[0],
+                        "Let me count the " + match.table() + ".");
+            }
+        }
+        if (plan == null && (matcher = LIST.matcher(input)).matches()) {
+            match = tableNames.resolve(matcher.group(1));
+            if (match != null) {
+                plan = plan("LIST", match.table(), "SELECT * FROM " + match.table(), new Object[0],
+                        "Here are the " + match.table() + ".");
+            }
+        }
+
+        if (plan == null) {
+            unmatched.incrementAndGet();
+            return null;
+        }
+        if (match.confidence() < config.getMinConfidence()) {
+            lowConfidence.incrementAndGet();
+            log.debug("Fast path matched {} with confidence {}, below threshold", match.table(), match.confidence());
+            return null;
+        }
+
+        routed.incrementAndGet();
+        log.debug("Fast path planned {} on {} without LLM: {}", plan.getIntent(), match.table(), plan.getSql());
+        return plan;
+    }
+
+    public FastPathStats getStats() {
+        return FastPathStats.builder()
+                .routed(routed.get())
+                .lowConfidence(lowConfidence.get())
+                .unmatched(unmatched.get())
+                .build();
+    }
+
+    private ConversationalLLMResponse readByKey(TableMatch match, DatabaseSchema.TableInfo table, String literal) {
+        List<String> keys = table.getPrimaryKeys();
+        if (keys == null || keys.size() != 1) {
+            return null;
+        }
+
+        String key = keys.get(0);
+        Object value = keyValue(literal, table.getColumns() != null ? table.getColumns().get(key) : null);
+        if (value == null) {
+            return null;
+        }
+        return plan("READ", match.table(), "SELECT * FROM " + match.table() + " WHERE " + key + " = ?",
+                new Object[]{value}, "Here is " + match.table() + " " + literal + ".");
+    }
+
+    private Object keyValue(String literal, DatabaseSchema.ColumnInfo column) {
+        boolean quoted = literal.startsWith("'") || literal.startsWith("\"");
+        String text = quoted ? literal.substring(1, literal.length() - 1) : literal;
+        String type = column != null && column.getDataType() != null ? column.getDataType().toUpperCase(Locale.ROOT) : "";
+        boolean numericKey = type.contains("INT") || type.contains("NUMERIC") || type.contains("DECIMAL");
+        if (numericKey) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        // A bare number against a text key is more likely a row position or quantity than an id.
+        return quoted || type.isEmpty() ? text : null;
+    }
+
+    private ConversationalLLMResponse plan(String intent, String table, String sql, Object[] parameters, String message) {
+        return ConversationalLLMResponse.builder()
+                .valid(true)
+                .intent(intent)
+                .tableName(table)
+                .sql(sql)
+                .parameters(parameters)
+                .humanResponse(message)
+                .build();
+    }
+
+    private TableNames namesFor(DatabaseSchema schema) {
+        TableNames current = names.get();
+        if (current != null && current.schema == schema) {
+            return current;
+        }
+        Map<String, String> synonyms = new HashMap<>(entityScanner.indexFor(schema).getSynonyms());
+        synonyms.putAll(config.getSynonyms());
+        TableNames built = new TableNames(schema, synonyms);
+        names.set(built);
+        return built;
+    }
+
+    private record TableMatch(String table, double confidence) {
+    }
+
+    /** Every way a table can be referred to, with the confidence each spelling carries. */
+    private static final class TableNames {
+        private final DatabaseSchema schema;
+        private final Map<String, TableMatch> phrases = new HashMap<>();
+
+        private TableNames(DatabaseSchema schema, Map<String, String> synonyms) {
+            this.schema = schema;
+            for (String table : schema.getTables().keySet()) {
+                String phrase = table.toLowerCase(Locale.ROOT);
+                add(phrase, table, EXACT);
+                add(phrase.replace('_', ' '), table, EXACT);
+                for (String inflected : inflections(phrase)) {
+                    add(inflected, table, INFLECTED);
+                    add(inflected.replace('_', ' '), table, INFLECTED);
+                }
+            }
+            synonyms.forEach((synonym, table) -> {
+                String key = schema.getTables().containsKey(table) ? table : findIgnoringCase(table);
+                if (key != null) {
+                    String phrase = synonym.toLowerCase(Locale.ROOT);
+                    add(phrase, key, SYNONYM);
+                    inflections(phrase).forEach(inflected -> add(inflected, key, SYNONYM));
+                }
+            });
+        }
+
+        private void add(String phrase, String table, double confidence) {
+            TableMatch existing = phrases.get(phrase);
+            if (existing == null || existing.confidence() < confidence) {
+                phrases.put(phrase, new TableMatch(table, confidence));
+            } else if (existing.confidence() == confidence && !existing.table().equals(table)) {
+                // Two tables answer to the same name: neither can be routed without the model.
+                phrases.put(phrase, new TableMatch(table, 0));
+            }
+        }
+
+        TableMatch resolve(String phrase) {
+            TableMatch match = phrases.get(phrase);
+            if (match != null) {
+                return match;
+            }
+            if (phrase.length() < 5 || phrase.indexOf(' ') >= 0) {
+                return null;
+            }
+
+            TableMatch fuzzy = null;
+            for (Map.Entry<String, TableMatch> entry : phrases.entrySet()) {
+                if (isOneEditAway(phrase, entry.getKey())) {
+                    if (fuzzy != null && !fuzzy.table().equals(entry.getValue().table())) {
+                        return null;
+                    }
+                    fuzzy = new TableMatch(entry.getValue().table(), Math.min(FUZZY, entry.getValue().confidence()));
+                }
+            }
+            return fuzzy;
+        }
+
+        private String findIgnoringCase(String table) {
+            return schema.getTables().keySet().stream()
+                    .filter(name -> name.equalsIgnoreCase(table))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        private static List<String> inflections(String word) {
+            if (word.endsWith("ies")) {
+                return List.of(word.substring(0, word.length() - 3) + "y");
+            }
+            if (word.endsWith("ses") || word.endsWith("xes") || word.endsWith("ches") || word.endsWith("shes")) {
+                return List.of(word.substring(0, word.length() - 2), word.substring(0, word.length() - 1));
+            }
+            if (word.endsWith("s") && !word.endsWith("ss")) {
+                return List.of(word.substring(0, word.length() - 1));
+            }
+            if (word.endsWith("y") && word.length() > 1 && "aeiou".indexOf(word.charAt(word.length() - 2)) < 0) {
+                return List.of(word.substring(0, word.length() - 1) + "ies");
+            }
+            if (word.endsWith("s") || word.endsWith("x") || word.endsWith("ch") || word.endsWith("sh")) {
+                return List.of(word + "es");
+            }
+            return List.of(word + "s");
+        }
+
+        private static boolean isOneEditAway(String a, String b) {
+            if (Math.abs(a.length() - b.length()) > 1) {
+                return false;
+            }
+            int i = 0;
+            int j = 0;
+            int edits = 0;
+            while (i < a.length() && j < b.length()) {
+                if (a.charAt(i) == b.charAt(j)) {
+                    i++;
+                    j++;
+                    continue;
+                }
+                if (++edits > 1) {
+                    return false;
+                }
+                if (a.length() > b.length()) {
+                    i++;
+                } else if (a.length() < b.length()) {
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+            return edits + (a.length() - i) + (b.length() - j) <= 1;
+        }
+    }
+}
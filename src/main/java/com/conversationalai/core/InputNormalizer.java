@@ -0,0 +1,118 @@
+package com.conversationalai.core;
+
+/**
+ * Canonical form of a user request used as a cache key.
+ * Whitespace is collapsed and trailing punctuation dropped. Words are lower-cased only when their case
+ * cannot matter: words already in lower case, and a capitalized first word. Anything else, like
+ * "John" or "SKU-A1", may be a value the query binds and keeps its case, as do quoted literals.
+ */
+public final class InputNormalizer {
+
+    private InputNormalizer() {
+    }
+
+    public static String normalize(String userInput) {
+        return normalize(userInput, false);
+    }
+
+    /**
+     * Like {@link #normalize(String)}, but lower-cases every word outside quoted literals. For matching
+     * fixed phrases and command shapes, not for keys whose plans bind values from the input.
+     */
+    public static String normalizeIgnoringCase(String userInput) {
+        return normalize(userInput, true);
+    }
+
+    private static String normalize(String userInput, boolean foldAll) {
+        if (userInput == null) {
+            return "";
+        }
+
+        String trimmed = userInput.trim();
+        StringBuilder normalized = new StringBuilder(trimmed.length());
+        boolean pendingSpace = false;
+        boolean wordStart = true;
+        boolean firstWord = true;
+        boolean fold = false;
+
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                wordStart = true;
+                continue;
+            }
+
+            if (pendingSpace && normalized.length() > 0) {
+                normalized.append(' ');
+            }
+            pendingSpace = false;
+
+            if (wordStart) {
+                String word = wordAt(trimmed, i);
+                fold = foldAll || !hasUpperCase(word, 0) || (firstWord && !hasUpperCase(word, 1));
+                firstWord = false;
+                wordStart = false;
+            }
+
+            if ((c == '\'' || c == '"') && opensLiteral(normalized)) {
+                int close = closingQuote(trimmed, i, c);
+                if (close > 0) {
+                    normalized.append(trimmed, i, close + 1);
+                    i = close;
+                    continue;
+                }
+            }
+            normalized.append(fold ? Character.toLowerCase(c) : c);
+        }
+
+        int end = normalized.length();
+        while (end > 0 && isTrailingPunctuation(normalized.charAt(end - 1))) {
+            end--;
+        }
+        normalized.setLength(end);
+
+        return normalized.toString();
+    }
+
+    /** A quote opens a literal only at the start of a word or after an operator, never inside "john's". */
+    private static boolean opensLiteral(StringBuilder normalized) {
+        if (normalized.length() == 0) {
+            return true;
+        }
+        char previous = normalized.charAt(normalized.length() - 1);
+        return previous == ' ' || previous == '(' || previous == '=' || previous == ':' || previous == ',';
+    }
+
+    /** Index of the quote closing the literal opened at {@code open}, or -1 when it is never closed. */
+    private static int closingQuote(String text, int open, char quote) {
+        for (int i = open + 1; i < text.length(); i++) {
+            if (text.charAt(i) == quote && (i + 1 == text.length() || !Character.isLetterOrDigit(text.charAt(i + 1)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String wordAt(String text, int start) {
+        int end = start;
+        while (end < text.length() && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return text.substring(start, end);
+    }
+
+    private static boolean hasUpperCase(String word, int from) {
+        for (int i = from; i < word.length(); i++) {
+            if (Character.isUpperCase(word.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTrailingPunctuation(char c) {
+        return c == '?' || c == '!' || c == '.' || c == ' ';
+    }
+}
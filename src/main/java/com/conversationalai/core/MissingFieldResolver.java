@@ -0,0 +1,148 @@
+package com.conversationalai.core;
+
+import com.conversationalai.dto.DatabaseSchema;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks values for the fields a MISSING_INFO answer asked for out of a follow-up message, such as
+ * "email is alice@example.com, age 30" or, when a single field is pending, just "alice@example.com".
+ * Values are converted to the column's Java type so they can be bound without another model call.
+ * A bare message is only taken as the value when it is unmistakably one (quoted, a number for a numeric
+ * column, an email address and the like); anything else, such as "cancel" or a new request, is left to
+ * the model. Values that do not convert to the column's type are dropped the same way.
+ */
+final class MissingFieldResolver {
+
+    private static final Pattern EMAIL = Pattern.compile("[^\\s@]+@[^\\s@]+\\.[^\\s@]+");
+    private static final Pattern NUMBER_LIKE = Pattern.compile("[+-]?[\\d(][\\d\\s().-]*");
+    private static final Pattern DATE_LIKE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}(?:[ T]\\d{2}:\\d{2}(?::\\d{2}(?:\\.\\d+)?)?)?");
+
+    private static final String VALUE = "(\"[^\"]*\"|'[^']*'|[^,;\\n]+?)(?=\\s*(?:[,;\\n]|\\band\\b|$))";
+
+    private MissingFieldResolver() {
+    }
+
+    static Map<String, Object> extract(String userInput, String[] pendingFields, DatabaseSchema.TableInfo table) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (userInput == null || pendingFields == null) {
+            return values;
+        }
+
+        for (String field : pendingFields) {
+            String name = Pattern.quote(field).replace("_", "\\E[_ ]\\Q");
+            Matcher matcher = Pattern.compile("(?i)\\b" + name + "\\b\\s*(?:[:=]|\\bis\\b|\\bto\\b|\\bof\\b)?\\s*" + VALUE)
+                    .matcher(userInput);
+            if (matcher.find()) {
+                Object value = convert(unquote(matcher.group(1)), column(table, field));
+                if (value != null) {
+                    values.put(field, value);
+                }
+            }
+        }
+
+        if (values.isEmpty() && pendingFields.length == 1) {
+            String value = userInput.trim().replaceAll("[.!]+$", "");
+            DatabaseSchema.ColumnInfo column = column(table, pendingFields[0]);
+            if (isBareValue(value, column)) {
+                Object converted = convert(unquote(value), column);
+                if (converted != null) {
+                    values.put(pendingFields[0], converted);
+                }
+            }
+        }
+        return values;
+    }
+
+    /** Whether a whole message, with no field name in it, can only be meant as the value itself. */
+    private static boolean isBareValue(String value, DatabaseSchema.ColumnInfo column) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        if (!unquote(value).equals(value.trim())) {
+            return true;
+        }
+        if (value.contains(",") || value.contains(";")) {
+            return false;
+        }
+        String type = column != null && column.getDataType() != null ? column.getDataType().toUpperCase(Locale.ROOT) : "";
+        if (isNumeric(type) || type.contains("BOOL") || type.equals("BIT")) {
+            // convert() rejects anything that is not a number or a yes/no answer.
+            return true;
+        }
+        if (type.contains("DATE") || type.contains("TIME")) {
+            return DATE_LIKE.matcher(value).matches();
+        }
+        return EMAIL.matcher(value).matches() || NUMBER_LIKE.matcher(value).matches();
+    }
+
+    private static boolean isNumeric(String type) {
+        return type.contains("INT") || type.contains("DECIMAL") || type.contains("NUMERIC") || type.contains("DOUBLE")
+                || type.contains("FLOAT") || type.contains("REAL");
+    }
+
+    /** The table's own spelling of {@code field}, or {@code null} when the table has no such column. */
+    static String columnName(DatabaseSchema.TableInfo table, String field) {
+        DatabaseSchema.ColumnInfo column = column(table, field);
+        if (column == null) {
+            return null;
+        }
+        return column.getColumnName() != null ? column.getColumnName() : field;
+    }
+
+    private static DatabaseSchema.ColumnInfo column(DatabaseSchema.TableInfo table, String field) {
+        if (table == null || table.getColumns() == null) {
+            return null;
+        }
+        DatabaseSchema.ColumnInfo column = table.getColumns().get(field);
+        if (column != null) {
+            return column;
+        }
+        for (Map.Entry<String, DatabaseSchema.ColumnInfo> entry : table.getColumns().entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(field)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String unquote(String value) {
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && (trimmed.charAt(0) == '"' || trimmed.charAt(0) == '\'')
+                && trimmed.charAt(trimmed.length() - 1) == trimmed.charAt(0)) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /** The value as the column's Java type, or {@code null} when it is not a valid value for the column. */
+    private static Object convert(String value, DatabaseSchema.ColumnInfo column) {
+        if (column == null || column.getDataType() == null) {
+            return value;
+        }
+        String type = column.getDataType().toUpperCase(Locale.ROOT);
+        try {
+            if (type.contains("INT")) {
+                return Long.parseLong(value);
+            }
+            if (isNumeric(type)) {
+                return new BigDecimal(value);
+            }
+            if (type.contains("BOOL") || type.equals("BIT")) {
+                return switch (value.toLowerCase(Locale.ROOT)) {
+                    case "yes", "y", "true", "1" -> Boolean.TRUE;
+                    case "no", "n", "false", "0" -> Boolean.FALSE;
+                    default -> null;
+                };
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,231 @@
+package com.conversationalai.core;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.EntityInfo;
+import com.conversationalai.entity.EntityIndex;
+import com.conversationalai.entity.EntityScanner;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Picks the tables relevant to a user request so the prompt only describes those instead of the whole schema.
+ * Tables are ranked with BM25 over the words in table and column names (table names weigh double),
+ * and the best {@code max-tables} are sent together with their foreign key neighbours, within a token budget.
+ * Synonyms and descriptions from {@code @ConversationalEntity} count as table-name words.
+ */
+@Slf4j
+@Component
+public class SchemaRelevanceRanker {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TABLE_NAME_WEIGHT = 2;
+
+    private final ConversationalAIProperties.PromptConfig config;
+    private final EntityScanner entityScanner;
+    private final AtomicReference<TableIndex> index = new AtomicReference<>();
+
+    public SchemaRelevanceRanker(ConversationalAIProperties properties, EntityScanner entityScanner) {
+        this.config = properties.getPrompt();
+        this.entityScanner = entityScanner;
+    }
+
+    public DatabaseSchema prune(String userInput, DatabaseSchema schema) {
+        if (!config.isSchemaPruningEnabled() || schema.getTables() == null) {
+            return schema;
+        }
+
+        TableIndex tableIndex = indexFor(schema);
+        if (schema.getTables().size() <= config.getMaxTables() && tableIndex.totalTokens <= config.getMaxSchemaTokens()) {
+            return schema;
+        }
+
+        List<String> ranked = tableIndex.rank(terms(userInput));
+
+        Set<String> selected = new LinkedHashSet<>(ranked.subList(0, Math.min(ranked.size(), config.getMaxTables())));
+        Set<String> joinPartners = new LinkedHashSet<>();
+        for (String table : selected) {
+            joinPartners.addAll(tableIndex.neighbours.getOrDefault(table, Set.of()));
+        }
+        selected.addAll(joinPartners);
+        if (selected.isEmpty()) {
+            // Nothing matched: send what fits in the budget rather than nothing at all.
+            selected.addAll(tableIndex.tableNames);
+        }
+
+        Map<String, DatabaseSchema.TableInfo> pruned = new LinkedHashMap<>();
+        int tokens = 0;
+        for (String table : selected) {
+            int tableTokens = tableIndex.tokens.get(table);
+            if (!pruned.isEmpty() && tokens + tableTokens > config.getMaxSchemaTokens()) {
+                break;
+            }
+            pruned.put(table, schema.getTables().get(table));
+            tokens += tableTokens;
+        }
+
+        log.debug("Pruned schema from {} to {} tables (~{} tokens): {}",
+                schema.getTables().size(), pruned.size(), tokens, pruned.keySet());
+        return DatabaseSchema.builder().tables(pruned).build();
+    }
+
+    private TableIndex indexFor(DatabaseSchema schema) {
+        TableIndex current = index.get();
+        if (current != null && current.schema == schema) {
+            return current;
+        }
+        TableIndex built = new TableIndex(schema, entityScanner.indexFor(schema));
+        index.set(built);
+        return built;
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            boolean camelBoundary = Character.isUpperCase(c) && word.length() > 0
+                    && Character.isLowerCase(word.charAt(word.length() - 1));
+            if (!Character.isLetterOrDigit(c) || camelBoundary) {
+                if (word.length() > 1) {
+                    terms.add(stem(word.toString().toLowerCase()));
+                }
+                word.setLength(0);
+            }
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            }
+        }
+        return terms;
+    }
+
+    static String stem(String term) {
+        if (term.length() > 4 && term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.length() > 4 && (term.endsWith("ses") || term.endsWith("xes") || term.endsWith("ches") || term.endsWith("shes"))) {
+            return term.substring(0, term.length() - 2);
+        }
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    private static final class TableIndex {
+        private final DatabaseSchema schema;
+        private final List<String> tableNames = new ArrayList<>();
+        private final Map<String, Map<String, Integer>> termFrequencies = new HashMap<>();
+        private final Map<String, Integer> documentFrequencies = new HashMap<>();
+        private final Map<String, Integer> documentLengths = new HashMap<>();
+        private final Map<String, Set<String>> neighbours = new HashMap<>();
+        private final Map<String, Integer> tokens = new HashMap<>();
+        private final double averageLength;
+        private final int totalTokens;
+
+        private TableIndex(DatabaseSchema schema, EntityIndex entities) {
+            this.schema = schema;
+
+            int lengthSum = 0;
+            int tokenSum = 0;
+            for (Map.Entry<String, DatabaseSchema.TableInfo> entry : schema.getTables().entrySet()) {
+                String table = entry.getKey();
+                DatabaseSchema.TableInfo tableInfo = entry.getValue();
+                tableNames.add(table);
+
+                Map<String, Integer> frequencies = new HashMap<>();
+                int length = 0;
+                EntityInfo entity = entities.entity(table);
+                String names = entity != null ? table + " " + String.join(" ", entity.getSynonyms()) : table;
+                for (int i = 0; i < TABLE_NAME_WEIGHT; i++) {
+                    for (String term : terms(names)) {
+                        frequencies.merge(term, 1, Integer::sum);
+                        length++;
+                    }
+                }
+                if (entity != null && entity.getDescription() != null) {
+                    for (String term : terms(entity.getDescription())) {
+                        frequencies.merge(term, 1, Integer::sum);
+                        length++;
+                    }
+                }
+
+                int tableChars = table.length() + 20;
+                for (DatabaseSchema.ColumnInfo column : tableInfo.getColumns().values()) {
+                    for (String term : terms(column.getColumnName())) {
+                        frequencies.merge(term, 1, Integer::sum);
+                        length++;
+                    }
+                    tableChars += column.getColumnName().length() + String.valueOf(column.getDataType()).length() + 12;
+                }
+
+                termFrequencies.put(table, frequencies);
+                frequencies.keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+                documentLengths.put(table, length);
+                lengthSum += length;
+
+                // Rough estimate of ~4 characters per token for the rendered table description.
+                int tableTokens = tableChars / 4 + 1;
+                tokens.put(table, tableTokens);
+                tokenSum += tableTokens;
+
+                if (tableInfo.getForeignKeys() != null) {
+                    for (DatabaseSchema.ForeignKeyInfo foreignKey : tableInfo.getForeignKeys().values()) {
+                        String referenced = foreignKey.getReferencedTable();
+                        if (referenced != null && schema.getTables().containsKey(referenced) && !referenced.equals(table)) {
+                            neighbours.computeIfAbsent(table, key -> new LinkedHashSet<>()).add(referenced);
+                            neighbours.computeIfAbsent(referenced, key -> new LinkedHashSet<>()).add(table);
+                        }
+                    }
+                }
+            }
+
+            this.averageLength = tableNames.isEmpty() ? 1.0 : Math.max(1.0, (double) lengthSum / tableNames.size());
+            this.totalTokens = tokenSum;
+        }
+
+        List<String> rank(List<String> queryTerms) {
+            Set<String> uniqueTerms = new HashSet<>(queryTerms);
+            Map<String, Double> scores = new HashMap<>();
+            int documents = tableNames.size();
+
+            for (String table : tableNames) {
+                Map<String, Integer> frequencies = termFrequencies.get(table);
+                double lengthNorm = 1 - B + B * documentLengths.get(table) / averageLength;
+                double score = 0;
+                for (String term : uniqueTerms) {
+                    Integer tf = frequencies.get(term);
+                    if (tf == null) {
+                        continue;
+                    }
+                    int df = documentFrequencies.get(term);
+                    double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                    score += idf * tf * (K1 + 1) / (tf + K1 * lengthNorm);
+                }
+                if (score > 0) {
+                    scores.put(table, score);
+                }
+            }
+
+            List<String> ranked = new ArrayList<>(scores.keySet());
+            ranked.sort(Comparator.comparingDouble((String table) -> scores.get(table)).reversed());
+            return ranked;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.conversationalai.core;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one computation per key at a time. Callers that arrive while it is in flight wait for it
+ * and receive the same value or exception instead of starting their own. Nothing is kept afterwards.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    Result<V> run(K key, Supplier<V> work) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            try {
+                return new Result<>(existing.join(), false);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            V value = work.get();
+            own.complete(value);
+            return new Result<>(value, true);
+        } catch (Throwable t) {
+            // Errors too, or the followers joined on this future would wait forever
+            own.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    record Result<V>(V value, boolean leader) {
+    }
+}
@@ -8,10 +8,18 @@ import org.springframework.stereotype.Component;
 import lombok.Generated;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
+import com.conversationalai.config.ConversationalAIProperties;
 import com.conversationalai.dto.DatabaseSchema;
 import com.conversationalai.dto.DatabaseSchema.TableInfo;
 import com.conversationalai.dto.DatabaseSchema.ColumnInfo;
@@ -22,42 +30,164 @@ public class DatabaseSchemaAnalyzer {
     @Generated
     private static final Logger log = LoggerFactory.getLogger(DatabaseSchemaAnalyzer.class);
 
+    private static final int PER_TABLE_THRESHOLD = 8;
+
     private final JdbcTemplate jdbcTemplate;
+    private final ConversationalAIProperties.DatabaseConfig config;
+    private final Semaphore connectionPermits;
 
     @Autowired
-    public DatabaseSchemaAnalyzer(JdbcTemplate jdbcTemplate) {
+    public DatabaseSchemaAnalyzer(JdbcTemplate jdbcTemplate, ConversationalAIProperties properties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.config = properties.getDatabase();
+        this.connectionPermits = new Semaphore(Math.max(1, config.getIntrospectionParallelism()));
     }
 
     public DatabaseSchema analyzeSchema() {
         try {
-            Map<String, DatabaseSchema.TableInfo> tables = new HashMap<>();
-            DatabaseMetaData metaData = this.jdbcTemplate.getDataSource().getConnection().getMetaData();
-            ResultSet tablesResult = metaData.getTables(null, null, "%", new String[]{"TABLE"});
+            long start = System.currentTimeMillis();
+            Set<String> tableNames = withMetaData(this::readTableNames);
+            DatabaseSchema schema = DatabaseSchema.builder().tables(analyzeTables(tableNames)).build();
+            log.debug("Analyzed {} tables in {} ms", tableNames.size(), System.currentTimeMillis() - start);
+            return schema;
+        } catch (Exception e) {
+            log.error("Error analyzing database schema", e);
+            throw new RuntimeException("Failed to analyze database schema", e);
+        }
+    }
+
+    /**
+     * Cheap change check: one pass over the table list and the catalog-wide column list, hashed per table.
+     * Matches {@link #tableSignature(TableInfo)} for a table whose columns have not changed.
+     */
+    public Map<String, Long> readTableSignatures() {
+        try {
+            return withMetaData((metaData, scope) -> {
+                Set<String> tableNames = readTableNames(metaData, scope);
+                Map<String, Long> signatures = new HashMap<>();
+                tableNames.forEach(tableName -> signatures.put(tableName, 0L));
+
+                try (ResultSet columnsResult = metaData.getColumns(scope.catalog(), scope.schema(), "%", "%")) {
+                    while (columnsResult.next()) {
+                        String tableName = columnsResult.getString("TABLE_NAME");
+                        if (tableNames.contains(tableName) && scope.contains(columnsResult, "")) {
+                            long hash = columnSignature(
+                                    columnsResult.getString("COLUMN_NAME"),
+                                    columnsResult.getString("TYPE_NAME"),
+                                    columnsResult.getInt("NULLABLE") == 1,
+                                    "YES".equals(columnsResult.getString("IS_AUTOINCREMENT")),
+                                    columnsResult.getString("COLUMN_DEF"),
+                                    columnsResult.getInt("COLUMN_SIZE"));
+                            signatures.merge(tableName, hash, Long::sum);
+                        }
+                    }
+                }
+                return signatures;
+            });
+        } catch (Exception e) {
+            log.error("Error reading table signatures", e);
+            throw new RuntimeException("Failed to read table signatures", e);
+        }
+    }
+
+    public static long tableSignature(TableInfo tableInfo) {
+        long signature = 0;
+        for (ColumnInfo column : tableInfo.getColumns().values()) {
+            signature += columnSignature(column.getColumnName(), column.getDataType(), column.isNullable(),
+                    column.isAutoIncrement(), column.getDefaultValue(),
+                    column.getMaxLength() != null ? column.getMaxLength() : 0);
+        }
+        return signature;
+    }
+
+    private static long columnSignature(String columnName, String dataType, boolean nullable, boolean autoIncrement,
+                                        String defaultValue, int columnSize) {
+        long hash = Objects.hash(columnName, dataType, nullable, autoIncrement, defaultValue, columnSize);
+        // Spread the 32-bit hash so that summing column hashes per table stays collision resistant.
+        hash *= 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 29);
+    }
+
+    /**
+     * Introspects the given tables. Columns, primary keys and foreign keys are read with one catalog-wide
+     * metadata call each, running in parallel on separate connections (bounded by
+     * {@code introspection-parallelism}), and then grouped per table. Small sets of tables, as produced
+     * by incremental refreshes, use per-table calls instead.
+     */
+    public Map<String, TableInfo> analyzeTables(Set<String> tableNames) throws Exception {
+        Map<String, TableInfo> tables = new HashMap<>();
+        if (tableNames.isEmpty()) {
+            return tables;
+        }
+
+        Map<String, Map<String, ColumnInfo>> columns;
+        Map<String, List<String>> primaryKeys;
+        Map<String, Map<String, ForeignKeyInfo>> foreignKeys;
 
-            while(tablesResult.next()) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Map<String, Map<String, ColumnInfo>>> columnsFuture =
+                    executor.submit(() -> withMetaData((metaData, scope) -> readColumns(metaData, scope, tableNames)));
+            Future<Map<String, List<String>>> primaryKeysFuture =
+                    executor.submit(() -> withMetaData((metaData, scope) -> readPrimaryKeys(metaData, scope, tableNames)));
+            Future<Map<String, Map<String, ForeignKeyInfo>>> foreignKeysFuture =
+                    executor.submit(() -> withMetaData((metaData, scope) -> readForeignKeys(metaData, scope, tableNames)));
+
+            columns = await(columnsFuture);
+            primaryKeys = await(primaryKeysFuture);
+            foreignKeys = await(foreignKeysFuture);
+        }
+
+        for (String tableName : tableNames) {
+            tables.put(tableName, TableInfo.builder()
+                    .tableName(tableName)
+                    .columns(columns.getOrDefault(tableName, new HashMap<>()))
+                    .primaryKeys(primaryKeys.getOrDefault(tableName, new ArrayList<>()))
+                    .foreignKeys(foreignKeys.getOrDefault(tableName, new HashMap<>()))
+                    .build());
+        }
+        return tables;
+    }
+
+    private Set<String> readTableNames(DatabaseMetaData metaData, Scope scope) throws SQLException {
+        Set<String> tableNames = new LinkedHashSet<>();
+        try (ResultSet tablesResult = metaData.getTables(scope.catalog(), scope.schema(), "%", new String[]{"TABLE"})) {
+            while (tablesResult.next()) {
                 String tableName = tablesResult.getString("TABLE_NAME");
-                if (!this.isSystemTable(tableName)) {
-                    DatabaseSchema.TableInfo tableInfo = this.analyzeTable(metaData, tableName);
-                    tables.put(tableName, tableInfo);
+                if (scope.contains(tablesResult, "") && !this.isSystemTable(tableName) && this.isIncluded(tableName)) {
+                    tableNames.add(tableName);
                 }
             }
-
-            return DatabaseSchema.builder().tables(tables).build();
-        } catch (Exception e) {
-            log.error("Error analyzing database schema", e);
-            throw new RuntimeException("Failed to analyze database schema", e);
         }
+        return tableNames;
     }
 
-    private DatabaseSchema.TableInfo analyzeTable(DatabaseMetaData metaData, String tableName) throws Exception {
-        Map<String, DatabaseSchema.ColumnInfo> columns = new HashMap<>();
-        List<String> primaryKeys = new ArrayList<>();
-        Map<String, DatabaseSchema.ForeignKeyInfo> foreignKeys = new HashMap<>();
+    private Map<String, Map<String, ColumnInfo>> readColumns(DatabaseMetaData metaData, Scope scope,
+                                                             Set<String> tableNames) throws SQLException {
+        Map<String, Map<String, ColumnInfo>> columns = new HashMap<>();
 
-        ResultSet columnsResult = metaData.getColumns(null, null, tableName, "%");
+        if (tableNames.size() <= PER_TABLE_THRESHOLD) {
+            for (String tableName : tableNames) {
+                try (ResultSet columnsResult = metaData.getColumns(scope.catalog(), scope.schema(), tableName, "%")) {
+                    collectColumns(columnsResult, scope, tableNames, columns);
+                }
+            }
+            return columns;
+        }
+
+        try (ResultSet columnsResult = metaData.getColumns(scope.catalog(), scope.schema(), "%", "%")) {
+            collectColumns(columnsResult, scope, tableNames, columns);
+        }
+        return columns;
+    }
+
+    private void collectColumns(ResultSet columnsResult, Scope scope, Set<String> tableNames,
+                                Map<String, Map<String, ColumnInfo>> columns) throws SQLException {
+        while (columnsResult.next()) {
+            String tableName = columnsResult.getString("TABLE_NAME");
+            if (!tableNames.contains(tableName) || !scope.contains(columnsResult, "")) {
+                continue;
+            }
 
-        while(columnsResult.next()) {
             String columnName = columnsResult.getString("COLUMN_NAME");
             String dataType = columnsResult.getString("TYPE_NAME");
             boolean nullable = columnsResult.getInt("NULLABLE") == 1;
@@ -73,16 +203,80 @@ public class DatabaseSchemaAnalyzer {
                     .defaultValue(defaultValue)
                     .maxLength(columnSize)
                     .build();
-            columns.put(columnName, columnInfo);
+            columns.computeIfAbsent(tableName, name -> new HashMap<>()).put(columnName, columnInfo);
+        }
+    }
+
+    private Map<String, List<String>> readPrimaryKeys(DatabaseMetaData metaData, Scope scope,
+                                                      Set<String> tableNames) throws SQLException {
+        Map<String, List<String>> primaryKeys = new HashMap<>();
+
+        if (tableNames.size() > PER_TABLE_THRESHOLD) {
+            try (ResultSet primaryKeysResult = metaData.getPrimaryKeys(scope.catalog(), scope.schema(), null)) {
+                collectPrimaryKeys(primaryKeysResult, scope, tableNames, primaryKeys);
+                if (!primaryKeys.isEmpty()) {
+                    return primaryKeys;
+                }
+            } catch (SQLException e) {
+                // Not every driver accepts a null table here (H2, MySQL); fall back to per-table lookups.
+                log.debug("Bulk primary key lookup not supported, reading per table: {}", e.getMessage());
+            }
         }
 
-        ResultSet primaryKeysResult = metaData.getPrimaryKeys(null, null, tableName);
-        while(primaryKeysResult.next()) {
-            primaryKeys.add(primaryKeysResult.getString("COLUMN_NAME"));
+        primaryKeys.clear();
+        for (String tableName : tableNames) {
+            try (ResultSet primaryKeysResult = metaData.getPrimaryKeys(scope.catalog(), scope.schema(), tableName)) {
+                collectPrimaryKeys(primaryKeysResult, scope, tableNames, primaryKeys);
+            }
         }
+        return primaryKeys;
+    }
+
+    private void collectPrimaryKeys(ResultSet primaryKeysResult, Scope scope, Set<String> tableNames,
+                                    Map<String, List<String>> primaryKeys) throws SQLException {
+        while (primaryKeysResult.next()) {
+            String tableName = primaryKeysResult.getString("TABLE_NAME");
+            if (tableNames.contains(tableName) && scope.contains(primaryKeysResult, "")) {
+                primaryKeys.computeIfAbsent(tableName, name -> new ArrayList<>())
+                        .add(primaryKeysResult.getString("COLUMN_NAME"));
+            }
+        }
+    }
+
+    private Map<String, Map<String, ForeignKeyInfo>> readForeignKeys(DatabaseMetaData metaData, Scope scope,
+                                                                     Set<String> tableNames) throws SQLException {
+        Map<String, Map<String, ForeignKeyInfo>> foreignKeys = new HashMap<>();
+
+        if (tableNames.size() > PER_TABLE_THRESHOLD) {
+            try (ResultSet foreignKeysResult = metaData.getImportedKeys(scope.catalog(), scope.schema(), null)) {
+                collectForeignKeys(foreignKeysResult, scope, tableNames, foreignKeys);
+                // Drivers that need a table name return nothing rather than failing; a schema without
+                // any foreign keys just pays for the per-table lookups below.
+                if (!foreignKeys.isEmpty()) {
+                    return foreignKeys;
+                }
+            } catch (SQLException e) {
+                log.debug("Bulk foreign key lookup not supported, reading per table: {}", e.getMessage());
+            }
+        }
+
+        foreignKeys.clear();
+        for (String tableName : tableNames) {
+            try (ResultSet foreignKeysResult = metaData.getImportedKeys(scope.catalog(), scope.schema(), tableName)) {
+                collectForeignKeys(foreignKeysResult, scope, tableNames, foreignKeys);
+            }
+        }
+        return foreignKeys;
+    }
+
+    private void collectForeignKeys(ResultSet foreignKeysResult, Scope scope, Set<String> tableNames,
+                                    Map<String, Map<String, ForeignKeyInfo>> foreignKeys) throws SQLException {
+        while (foreignKeysResult.next()) {
+            String tableName = foreignKeysResult.getString("FKTABLE_NAME");
+            if (!tableNames.contains(tableName) || !scope.contains(foreignKeysResult, "FK")) {
+                continue;
+            }
 
-        ResultSet foreignKeysResult = metaData.getImportedKeys(null, null, tableName);
-        while(foreignKeysResult.next()) {
             String fkColumnName = foreignKeysResult.getString("FKCOLUMN_NAME");
             String pkTableName = foreignKeysResult.getString("PKTABLE_NAME");
             String pkColumnName = foreignKeysResult.getString("PKCOLUMN_NAME");
@@ -91,15 +285,39 @@ public class DatabaseSchemaAnalyzer {
                     .referencedTable(pkTableName)
                     .referencedColumn(pkColumnName)
                     .build();
-            foreignKeys.put(fkColumnName, fkInfo);
+            foreignKeys.computeIfAbsent(tableName, name -> new HashMap<>()).put(fkColumnName, fkInfo);
         }
+    }
+
+    private <T> T withMetaData(MetaDataCallback<T> callback) throws Exception {
+        connectionPermits.acquire();
+        try (Connection connection = dataSource().getConnection()) {
+            return callback.doWithMetaData(connection.getMetaData(), Scope.of(connection));
+        } finally {
+            connectionPermits.release();
+        }
+    }
+
+    private DataSource dataSource() {
+        return Objects.requireNonNull(this.jdbcTemplate.getDataSource(), "JdbcTemplate has no DataSource");
+    }
+
+    private <T> T await(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
 
-        return TableInfo.builder()
-                .tableName(tableName)
-                .columns(columns)
-                .primaryKeys(primaryKeys)
-                .foreignKeys(foreignKeys)
-                .build();
+    private boolean isIncluded(String tableName) {
+        String[] includeTables = config.getIncludeTables();
+        if (includeTables != null && includeTables.length > 0 &&
+                Arrays.stream(includeTables).noneMatch(tableName::equalsIgnoreCase)) {
+            return false;
+        }
+        String[] excludeTables = config.getExcludeTables();
+        return excludeTables == null || Arrays.stream(excludeTables).noneMatch(tableName::equalsIgnoreCase);
     }
 
     private boolean isSystemTable(String tableName) {
@@ -110,4 +328,35 @@ public class DatabaseSchemaAnalyzer {
                 lowerTableName.startsWith("performance_schema") ||
                 lowerTableName.equals("dual");
     }
-}
\ No newline at end of file
+
+    @FunctionalInterface
+    private interface MetaDataCallback<T> {
+        T doWithMetaData(DatabaseMetaData metaData, Scope scope) throws SQLException;
+    }
+
+    /**
+     * The connection's current catalog and schema. Metadata is read from these only, so tables with the
+     * same name in other schemas are not merged into the ones the application queries.
+     */
+    private record Scope(String catalog, String schema) {
+
+        static Scope of(Connection connection) throws SQLException {
+            String schema;
+            try {
+                schema = connection.getSchema();
+            } catch (SQLException | AbstractMethodError e) {
+                // Pre-JDBC 4.1 drivers: read every schema, as before.
+                schema = null;
+            }
+            return new Scope(connection.getCatalog(), schema);
+        }
+
+        /** Schema and catalog patterns may match more than one name; rows without them are kept. */
+        boolean contains(ResultSet row, String columnPrefix) throws SQLException {
+            String rowSchema = row.getString(columnPrefix + "TABLE_SCHEM");
+            String rowCatalog = row.getString(columnPrefix + "TABLE_CAT");
+            return (schema == null || rowSchema == null || schema.equals(rowSchema))
+                    && (catalog == null || rowCatalog == null || catalog.equals(rowCatalog));
+        }
+    }
+}
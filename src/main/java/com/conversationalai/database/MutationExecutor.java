@@ -0,0 +1,183 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.EntityInfo;
+import com.conversationalai.entity.EntityScanner;
+import com.conversationalai.security.ParsedStatement;
+import com.conversationalai.security.SecurityValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs generated UPDATE and DELETE statements in two steps. A dry run first counts the rows that match
+ * the same WHERE condition and enforces {@code max-records-per-operation}. Larger approved mutations
+ * then run in primary-key ordered chunks of {@code mutation-chunk-size}, each its own statement and
+ * commit, so no single transaction locks or rewrites the whole set. Tables without a primary key are
+ * chunked by the {@code uniqueFields} of their {@code @ConversationalEntity}, if any.
+ */
+@Slf4j
+@Component
+public class MutationExecutor {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QueryExecutor queryExecutor;
+    private final SecurityValidator securityValidator;
+    private final SchemaCache schemaCache;
+    private final EntityScanner entityScanner;
+    private final ConversationalAIProperties.DatabaseConfig config;
+
+    public MutationExecutor(JdbcTemplate jdbcTemplate, QueryExecutor queryExecutor, SecurityValidator securityValidator,
+                            SchemaCache schemaCache, EntityScanner entityScanner, ConversationalAIProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queryExecutor = queryExecutor;
+        this.securityValidator = securityValidator;
+        this.schemaCache = schemaCache;
+        this.entityScanner = entityScanner;
+        this.config = properties.getDatabase();
+    }
+
+    /**
+     * Returns the number of affected rows. Throws {@link MutationLimitExceededException} without
+     * changing anything when more rows match than a single operation may touch. An UPDATE or DELETE
+     * whose affected rows cannot be counted is refused rather than run unchecked.
+     */
+    public int execute(String intent, String sql, Object[] parameters, DatabaseSchema.TableInfo table) {
+        ParsedStatement statement = securityValidator.parse(sql);
+        Object[] allParameters = parameters != null ? parameters : new Object[0];
+        if (!statement.isValid() || !statement.isMutation() || !statement.isHasWhere()) {
+            throw new IllegalArgumentException("Cannot determine the rows affected by " + intent + " statement: "
+                    + (!statement.isValid() ? statement.getParseError()
+                    : statement.isMutation() ? "no WHERE condition" : "not an UPDATE or DELETE"));
+        }
+        if (statement.getParameterCount() != allParameters.length) {
+            throw new IllegalArgumentException("Statement expects " + statement.getParameterCount()
+                    + " parameters but " + allParameters.length + " were given");
+        }
+
+        String fromClause = fromClause(statement);
+        Object[] whereParameters = Arrays.copyOfRange(allParameters, statement.getWhereParameterOffset(),
+                statement.getWhereParameterOffset() + statement.getWhereParameterCount());
+
+        long matching = countMatching(fromClause, statement.getWhereClause(), whereParameters);
+        if (!securityValidator.isOperationSafe(intent, matching)) {
+            throw new MutationLimitExceededException(matching);
+        }
+        if (matching == 0) {
+            return 0;
+        }
+
+        int chunkSize = Math.max(1, config.getMutationChunkSize());
+        List<String> keyColumns = keyColumns(statement, table);
+        if (matching <= chunkSize || keyColumns == null || keyColumns.isEmpty()) {
+            return queryExecutor.executeUpdate(sql, allParameters);
+        }
+
+        return executeInChunks(sql, allParameters, statement, fromClause, whereParameters, keyColumns, chunkSize);
+    }
+
+    private List<String> keyColumns(ParsedStatement statement, DatabaseSchema.TableInfo table) {
+        if (table != null && table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty()) {
+            return table.getPrimaryKeys();
+        }
+        EntityInfo entity = entityScanner.indexFor(schemaCache.getSchema()).entity(statement.getTargetTable());
+        return entity != null ? entity.getUniqueFields() : null;
+    }
+
+    private long countMatching(String fromClause, String whereClause, Object[] whereParameters) {
+        try {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + fromClause + " WHERE " + whereClause,
+                    Long.class, whereParameters);
+            return count != null ? count : 0;
+        } catch (Exception e) {
+            log.error("Error counting rows for mutation on {} WHERE {}", fromClause, whereClause, e);
+            throw new RuntimeException("Failed to estimate affected rows", e);
+        }
+    }
+
+    private int executeInChunks(String sql, Object[] parameters, ParsedStatement statement, String fromClause,
+                                Object[] whereParameters, List<String> keyColumns, int chunkSize) {
+        String qualifier = qualifier(statement);
+        List<String> qualifiedKeys = keyColumns.stream().map(key -> qualifier + "." + key).toList();
+
+        List<Object[]> keys = jdbcTemplate.query(
+                "SELECT " + String.join(", ", qualifiedKeys) + " FROM " + fromClause
+                        + " WHERE " + statement.getWhereClause() + " ORDER BY " + String.join(", ", qualifiedKeys),
+                (resultSet, rowNum) -> {
+                    Object[] key = new Object[keyColumns.size()];
+                    for (int i = 0; i < key.length; i++) {
+                        key[i] = resultSet.getObject(i + 1);
+                    }
+                    return key;
+                },
+                whereParameters);
+
+        String prefix = sql.substring(0, statement.getWhereStart());
+        String suffix = sql.substring(statement.getWhereEnd());
+        int whereOffset = statement.getWhereParameterOffset();
+        Object[] leadingParameters = Arrays.copyOfRange(parameters, 0, whereOffset);
+        Object[] trailingParameters = Arrays.copyOfRange(parameters, whereOffset + whereParameters.length, parameters.length);
+
+        int affected = 0;
+        for (int start = 0; start < keys.size(); start += chunkSize) {
+            List<Object[]> chunk = keys.subList(start, Math.min(start + chunkSize, keys.size()));
+
+            List<Object> chunkParameters = new ArrayList<>(Arrays.asList(leadingParameters));
+            chunkParameters.addAll(Arrays.asList(whereParameters));
+            String keyPredicate = keyPredicate(qualifiedKeys, chunk, chunkParameters);
+            chunkParameters.addAll(Arrays.asList(trailingParameters));
+
+            // The original condition stays in place, so rows that stopped matching since the count are skipped.
+            String chunkSql = prefix + "(" + statement.getWhereClause() + ") AND " + keyPredicate + " " + suffix;
+            affected += queryExecutor.executeUpdate(chunkSql.trim(), chunkParameters.toArray());
+        }
+
+        log.debug("Applied {} in {} chunks of up to {} rows, {} rows affected",
+                statement.getType(), (keys.size() + chunkSize - 1) / chunkSize, chunkSize, affected);
+        return affected;
+    }
+
+    private String keyPredicate(List<String> qualifiedKeys, List<Object[]> chunk, List<Object> parameters) {
+        if (qualifiedKeys.size() == 1) {
+            chunk.forEach(key -> parameters.add(key[0]));
+            return qualifiedKeys.get(0) + " IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+        }
+
+        List<String> rows = new ArrayList<>(chunk.size());
+        for (Object[] key : chunk) {
+            List<String> terms = new ArrayList<>(qualifiedKeys.size());
+            for (int i = 0; i < qualifiedKeys.size(); i++) {
+                terms.add(qualifiedKeys.get(i) + " = ?");
+                parameters.add(key[i]);
+            }
+            rows.add("(" + String.join(" AND ", terms) + ")");
+        }
+        return "(" + String.join(" OR ", rows) + ")";
+    }
+
+    private String fromClause(ParsedStatement statement) {
+        String alias = aliasOf(statement);
+        return alias != null ? statement.getTargetTable() + " " + alias : statement.getTargetTable();
+    }
+
+    private String qualifier(ParsedStatement statement) {
+        String alias = aliasOf(statement);
+        return alias != null ? alias : statement.getTargetTable();
+    }
+
+    private String aliasOf(ParsedStatement statement) {
+        for (Map.Entry<String, String> alias : statement.getTableAliases().entrySet()) {
+            if (statement.getTargetTable().equals(alias.getValue())) {
+                return alias.getKey();
+            }
+        }
+        return null;
+    }
+}
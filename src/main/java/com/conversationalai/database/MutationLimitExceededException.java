@@ -0,0 +1,15 @@
+package com.conversationalai.database;
+
+public class MutationLimitExceededException extends RuntimeException {
+
+    private final long matchingRows;
+
+    public MutationLimitExceededException(long matchingRows) {
+        super("Mutation would affect " + matchingRows + " rows, more than a single operation is allowed to");
+        this.matchingRows = matchingRows;
+    }
+
+    public long getMatchingRows() {
+        return matchingRows;
+    }
+}
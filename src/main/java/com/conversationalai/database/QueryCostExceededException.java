@@ -0,0 +1,16 @@
+package com.conversationalai.database;
+
+public class QueryCostExceededException extends RuntimeException {
+
+    private final QueryCostGuard.CostEstimate estimate;
+
+    public QueryCostExceededException(QueryCostGuard.CostEstimate estimate, long maxEstimatedRows) {
+        super("Estimated " + estimate.rows() + " rows (cost " + estimate.cost() + ") exceeds the limit of "
+                + maxEstimatedRows + " rows");
+        this.estimate = estimate;
+    }
+
+    public QueryCostGuard.CostEstimate getEstimate() {
+        return estimate;
+    }
+}
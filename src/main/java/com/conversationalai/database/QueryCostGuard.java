@@ -0,0 +1,184 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asks the database for its plan before generated SQL runs and rejects statements whose estimated
+ * examined rows or cost exceed the configured limits. Estimates are cached per SQL template (the text
+ * with its {@code ?} placeholders), so a repeated plan costs one EXPLAIN per cache lifetime.
+ */
+@Slf4j
+@Component
+public class QueryCostGuard {
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\*\\s*\"?(\\w+)\"?\\.\"?(\\w+)\"?\\.tableScan");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ConversationalAIProperties.CostGuardConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, CachedEstimate> estimates;
+    private volatile Product product;
+
+    public QueryCostGuard(JdbcTemplate jdbcTemplate, ConversationalAIProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = properties.getCostGuard();
+        this.estimates = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEstimate> eldest) {
+                return size() > config.getExplainCacheSize();
+            }
+        };
+    }
+
+    /**
+     * Throws {@link QueryCostExceededException} when the plan for {@code sql} is over the limits.
+     * Statements the database cannot explain are let through.
+     */
+    public void check(String sql, Object[] parameters) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        CostEstimate estimate = estimate(sql, parameters);
+        if (estimate == null) {
+            return;
+        }
+        if (estimate.rows() > config.getMaxEstimatedRows() || estimate.cost() > config.getMaxEstimatedCost()) {
+            log.warn("Rejected query with estimated {} rows and cost {}: {}", estimate.rows(), estimate.cost(), sql);
+            throw new QueryCostExceededException(estimate, config.getMaxEstimatedRows());
+        }
+    }
+
+    public CostEstimate estimate(String sql, Object[] parameters) {
+        synchronized (estimates) {
+            CachedEstimate cached = estimates.get(sql);
+            if (cached != null && System.currentTimeMillis() - cached.createdAt < config.getExplainCacheTtlMs()) {
+                return cached.estimate;
+            }
+        }
+
+        CostEstimate estimate;
+        try {
+            estimate = explain(sql, parameters);
+        } catch (Exception e) {
+            log.debug("Could not explain query, skipping cost check: {}", sql, e);
+            estimate = null;
+        }
+
+        synchronized (estimates) {
+            estimates.put(sql, new CachedEstimate(estimate, System.currentTimeMillis()));
+        }
+        return estimate;
+    }
+
+    private CostEstimate explain(String sql, Object[] parameters) throws Exception {
+        String statement = SqlPaginator.trimStatement(sql);
+        return switch (product()) {
+            case POSTGRESQL -> explainPostgres(statement, parameters);
+            case MYSQL -> explainMySql(statement, parameters);
+            case H2 -> explainH2(statement, parameters);
+            case OTHER -> null;
+        };
+    }
+
+    // Max "Plan Rows" over all nodes approximates rows examined; the root's "Total Cost" is the plan cost.
+    // Nodes below a Limit are estimated for a full run, so a Limit caps what is counted beneath it.
+    private CostEstimate explainPostgres(String sql, Object[] parameters) throws Exception {
+        String json = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, parameters);
+        JsonNode plan = objectMapper.readTree(json).path(0).path("Plan");
+        return new CostEstimate(maxPlanRows(plan), plan.path("Total Cost").asDouble());
+    }
+
+    private long maxPlanRows(JsonNode plan) {
+        long rows = plan.path("Plan Rows").asLong();
+        if ("Limit".equals(plan.path("Node Type").asText())) {
+            return rows;
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            rows = Math.max(rows, maxPlanRows(child));
+        }
+        return rows;
+    }
+
+    // Rows examined by a nested-loop join is roughly the product of the per-table estimates.
+    private CostEstimate explainMySql(String sql, Object[] parameters) {
+        List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters);
+        long rows = 1;
+        for (Map<String, Object> step : plan) {
+            Object stepRows = step.get("rows");
+            if (stepRows instanceof Number number && number.longValue() > 0) {
+                rows = multiplyCapped(rows, number.longValue());
+            }
+        }
+        return new CostEstimate(rows, rows);
+    }
+
+    // H2 has no row estimates in EXPLAIN, so every full table scan is priced at the table's estimated row count.
+    private CostEstimate explainH2(String sql, Object[] parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters);
+        long rows = 1;
+        Matcher tableScan = H2_TABLE_SCAN.matcher(plan != null ? plan : "");
+        while (tableScan.find()) {
+            Long tableRows = jdbcTemplate.queryForObject(
+                    "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = ?",
+                    Long.class, tableScan.group(1), tableScan.group(2));
+            if (tableRows != null && tableRows > 0) {
+                rows = multiplyCapped(rows, tableRows);
+            }
+        }
+        return new CostEstimate(rows, rows);
+    }
+
+    private long multiplyCapped(long a, long b) {
+        long product = a * b;
+        return (a != 0 && product / a != b) || product < 0 ? Long.MAX_VALUE : product;
+    }
+
+    private Product product() {
+        Product detected = product;
+        if (detected == null) {
+            String name = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            detected = Product.forName(name);
+            product = detected;
+        }
+        return detected;
+    }
+
+    private enum Product {
+        POSTGRESQL, MYSQL, H2, OTHER;
+
+        static Product forName(String name) {
+            String lower = name != null ? name.toLowerCase(Locale.ROOT) : "";
+            if (lower.contains("postgres")) {
+                return POSTGRESQL;
+            }
+            if (lower.contains("mysql") || lower.contains("mariadb")) {
+                return MYSQL;
+            }
+            if (lower.equals("h2")) {
+                return H2;
+            }
+            return OTHER;
+        }
+    }
+
+    public record CostEstimate(long rows, double cost) {
+    }
+
+    private record CachedEstimate(CostEstimate estimate, long createdAt) {
+    }
+}
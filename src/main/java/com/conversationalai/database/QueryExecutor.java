@@ -1,30 +1,69 @@
 package com.conversationalai.database;
 
+import com.conversationalai.cache.QueryResultCache;
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.QueryResult;
+import com.conversationalai.dto.StatementShapeStats;
+import com.conversationalai.security.ParsedStatement;
+import com.conversationalai.security.SecurityValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.stereotype.Component;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Component
 public class QueryExecutor {
     private static final Logger log = LoggerFactory.getLogger(QueryExecutor.class);
 
     private final JdbcTemplate jdbcTemplate;
+    private final SecurityValidator securityValidator;
+    private final QueryResultCache queryResultCache;
+    private final ConversationalAIProperties.DatabaseConfig databaseConfig;
+    private final int maxRows;
+    private final StatementCache statementCache;
 
     @Autowired
-    public QueryExecutor(JdbcTemplate jdbcTemplate) {
+    public QueryExecutor(JdbcTemplate jdbcTemplate, SecurityValidator securityValidator,
+                         QueryResultCache queryResultCache, ConversationalAIProperties properties) {
         this.jdbcTemplate = jdbcTemplate;
+        this.securityValidator = securityValidator;
+        this.queryResultCache = queryResultCache;
+        this.databaseConfig = properties.getDatabase();
+        this.maxRows = properties.getSecurity().getMaxRecordsPerOperation();
+        this.statementCache = new StatementCache(databaseConfig.getStatementCacheSize());
+    }
+
+    public StatementShapeStats getStatementShapeStats() {
+        return statementCache.getStats();
     }
 
     public List<Map<String, Object>> executeQuery(String sql, Object[] parameters) {
         try {
             log.debug("Executing query: {} with parameters: {}", sql, parameters);
-            return jdbcTemplate.queryForList(sql, parameters);
+            return execute(sql, parameters, 0, statement -> {
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return new RowMapperResultSetExtractor<>(new ColumnMapRowMapper()).extractData(resultSet);
+                }
+            });
         } catch (EmptyResultDataAccessException e) {
             log.debug("Query returned no results: {}", sql);
             return List.of(); // Return empty list instead of null
@@ -34,13 +73,224 @@ public class QueryExecutor {
         }
     }
 
+    /**
+     * Streams the result set row by row and keeps at most {@code max-records-per-operation} rows.
+     * The driver fetches in batches of {@code fetch-size} and stops after one row past the cap,
+     * so large tables are never materialized. When the cap is hit, the total is counted separately.
+     */
+    public QueryResult executeBoundedQuery(String sql, Object[] parameters) {
+        return cachedRead(sql, parameters, () -> boundedQuery(sql, parameters));
+    }
+
+    private QueryResult boundedQuery(String sql, Object[] parameters) {
+        try {
+            log.debug("Executing bounded query: {} with parameters: {}", sql, parameters);
+            StreamedRows rows = streamRows(sql, parameters, maxRows);
+            if (!rows.hasMore()) {
+                return QueryResult.builder()
+                        .columns(rows.columns())
+                        .values(rows.values())
+                        .totalCount(rows.values().size())
+                        .totalCountExact(true)
+                        .build();
+            }
+
+            Long total = databaseConfig.isCountTruncatedResults() ? countRows(sql, parameters) : null;
+            return QueryResult.builder()
+                    .columns(rows.columns())
+                    .values(rows.values())
+                    .truncated(true)
+                    .totalCount(total != null ? total : rows.values().size())
+                    .totalCountExact(total != null)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error executing query: {} with parameters: {}", sql, parameters, e);
+            throw new RuntimeException("Failed to execute query", e);
+        }
+    }
+
+    /**
+     * Runs one page produced by {@link SqlPaginator}. {@code truncated} means another page exists.
+     * The total is counted once, on the first page, and carried along by the cursor afterwards.
+     */
+    public QueryResult executePage(SqlPaginator.PagedQuery page) {
+        return cachedRead(page.sql(), page.parameters(), () -> pageQuery(page));
+    }
+
+    private QueryResult pageQuery(SqlPaginator.PagedQuery page) {
+        try {
+            log.debug("Executing page at offset {}: {} with parameters: {}", page.offset(), page.sql(), page.parameters());
+            StreamedRows rows = streamRows(page.sql(), page.parameters(), page.pageSize());
+            boolean hasMore = rows.hasMore();
+
+            long total;
+            boolean exact;
+            if (!hasMore) {
+                total = page.offset() + rows.values().size();
+                exact = true;
+            } else if (page.knownTotal() != null) {
+                total = page.knownTotal();
+                exact = page.knownTotalExact();
+            } else {
+                Long counted = databaseConfig.isCountTruncatedResults() ? countRows(page.baseSql(), page.baseParameters()) : null;
+                total = counted != null ? counted : page.offset() + rows.values().size();
+                exact = counted != null;
+            }
+
+            return QueryResult.builder()
+                    .columns(rows.columns())
+                    .values(rows.values())
+                    .truncated(hasMore)
+                    .offset(page.offset())
+                    .totalCount(total)
+                    .totalCountExact(exact)
+                    .build();
+        } catch (Exception e) {
+            log.error("Error executing page: {} with parameters: {}", page.sql(), page.parameters(), e);
+            throw new RuntimeException("Failed to execute query", e);
+        }
+    }
+
+    /**
+     * Reads at most {@code limit} rows into value arrays that share one column header,
+     * and reports whether the result set had more.
+     */
+    private StreamedRows streamRows(String sql, Object[] parameters, int limit) {
+        ResultSetExtractor<StreamedRows> extractor = resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            String[] columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = JdbcUtils.lookupColumnName(metaData, i + 1);
+            }
+
+            List<Object[]> values = new ArrayList<>();
+            while (resultSet.next()) {
+                if (values.size() == limit) {
+                    return new StreamedRows(columns, values, true);
+                }
+                Object[] row = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    row[i] = JdbcUtils.getResultSetValue(resultSet, i + 1);
+                }
+                values.add(row);
+            }
+            return new StreamedRows(columns, values, false);
+        };
+
+        return execute(sql, parameters, limit + 1, statement -> {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return extractor.extractData(resultSet);
+            }
+        });
+    }
+
+    private Long countRows(String sql, Object[] parameters) {
+        try {
+            return execute("SELECT COUNT(*) FROM (" + SqlPaginator.trimStatement(sql) + ") counted_rows", parameters, 0,
+                    statement -> {
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            return resultSet.next() ? resultSet.getLong(1) : null;
+                        }
+                    });
+        } catch (Exception e) {
+            log.debug("Could not count total rows for: {}", sql, e);
+            return null;
+        }
+    }
+
     public int executeUpdate(String sql, Object[] parameters) {
+        return executeUpdate(sql, parameters, null);
+    }
+
+    /**
+     * Runs a write and drops cached results for the table it wrote. The table is taken from the parsed
+     * statement, then from {@code tableName}; when neither is known, the whole result cache is cleared.
+     */
+    public int executeUpdate(String sql, Object[] parameters, String tableName) {
         try {
             log.debug("Executing update: {} with parameters: {}", sql, parameters);
-            return jdbcTemplate.update(sql, parameters);
+            Integer affectedRows = execute(sql, parameters, 0, PreparedStatement::executeUpdate);
+            invalidateCachedResults(sql, tableName);
+            return affectedRows != null ? affectedRows : 0;
         } catch (Exception e) {
             log.error("Error executing update: {} with parameters: {}", sql, parameters, e);
             throw new RuntimeException("Failed to execute update", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Serves a read from the result cache, or runs it and caches the result under the tables it read.
+     * Statements whose tables cannot be determined are not cached.
+     */
+    private QueryResult cachedRead(String sql, Object[] parameters, Supplier<QueryResult> query) {
+        if (!queryResultCache.isEnabled()) {
+            return query.get();
+        }
+
+        String canonicalSql = statementCache.canonicalize(sql);
+        QueryResult cached = queryResultCache.get(canonicalSql, parameters);
+        if (cached != null) {
+            log.debug("Result cache hit: {}", canonicalSql);
+            return cached;
+        }
+
+        long readStartedAt = queryResultCache.beginRead();
+        QueryResult result = query.get();
+        queryResultCache.put(canonicalSql, parameters, tablesRead(sql), result, readStartedAt);
+        return result;
+    }
+
+    private Set<String> tablesRead(String sql) {
+        ParsedStatement statement = securityValidator.parse(sql);
+        if (!statement.isValid() || statement.getType() != ParsedStatement.StatementType.SELECT) {
+            return Set.of();
+        }
+        Set<String> tables = new HashSet<>();
+        collectTables(statement, tables);
+        return tables;
+    }
+
+    private void collectTables(ParsedStatement statement, Set<String> tables) {
+        tables.addAll(statement.getTables());
+        statement.getSubqueries().forEach(subquery -> collectTables(subquery, tables));
+    }
+
+    private void invalidateCachedResults(String sql, String tableName) {
+        ParsedStatement statement = securityValidator.parse(sql);
+        String table = statement.isValid() && statement.getTargetTable() != null ? statement.getTargetTable() : tableName;
+        if (table != null) {
+            queryResultCache.invalidate(Set.of(table));
+        } else {
+            queryResultCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Prepares the canonical form of {@code sql} through the statement cache, binds the parameters and
+     * times the execution separately from the prepare. A positive {@code rowLimit} also bounds the fetch.
+     */
+    private <T> T execute(String sql, Object[] parameters, int rowLimit, PreparedStatementCallback<T> action) {
+        String canonicalSql = statementCache.canonicalize(sql);
+        ArgumentPreparedStatementSetter setter = new ArgumentPreparedStatementSetter(parameters);
+        return jdbcTemplate.execute((PreparedStatementCreator) connection -> {
+            PreparedStatement statement = statementCache.prepare(connection, canonicalSql);
+            if (rowLimit > 0) {
+                statement.setFetchSize(Math.min(databaseConfig.getFetchSize(), rowLimit));
+                statement.setMaxRows(rowLimit);
+            }
+            return statement;
+        }, (PreparedStatementCallback<T>) statement -> {
+            setter.setValues(statement);
+            long start = System.nanoTime();
+            try {
+                return action.doInPreparedStatement(statement);
+            } finally {
+                statementCache.recordExecution(System.nanoTime() - start);
+                setter.cleanupParameters();
+            }
+        });
+    }
+
+    private record StreamedRows(String[] columns, List<Object[]> values, boolean hasMore) {
+    }
+}
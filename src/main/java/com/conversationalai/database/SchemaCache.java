@@ -1,36 +1,195 @@
 package com.conversationalai.database;
 
+import com.conversationalai.config.ConversationalAIProperties;
 import com.conversationalai.dto.DatabaseSchema;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current schema as an immutable snapshot that is swapped atomically.
+ * Reloads are single-flight and happen in the background ahead of expiry, so after the
+ * initial load requests are always served from memory, even while a refresh is running.
+ */
 @Component
 @Slf4j
 public class SchemaCache {
 
     private final DatabaseSchemaAnalyzer schemaAnalyzer;
-    private DatabaseSchema cachedSchema;
-    private long lastCacheTime = 0;
-    private static final long CACHE_TTL_MS = 300_000;
+    private final SchemaChangeDetector changeDetector;
+    private final SchemaSnapshotStore snapshotStore;
+    private final ConversationalAIProperties.DatabaseConfig config;
+    private final AtomicReference<SchemaSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<SchemaSnapshot>> inFlightRefresh = new AtomicReference<>();
+    private final ScheduledExecutorService refreshScheduler;
+    private int refreshesSinceFullLoad;
+    private long lastVersion;
 
-    public SchemaCache(DatabaseSchemaAnalyzer schemaAnalyzer) {
+    public SchemaCache(DatabaseSchemaAnalyzer schemaAnalyzer, SchemaChangeDetector changeDetector,
+                       SchemaSnapshotStore snapshotStore, ConversationalAIProperties properties) {
         this.schemaAnalyzer = schemaAnalyzer;
+        this.changeDetector = changeDetector;
+        this.snapshotStore = snapshotStore;
+        this.config = properties.getDatabase();
+        this.refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schema-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        SchemaSnapshot persisted = snapshotStore.load();
+        if (persisted != null) {
+            // Serve the persisted schema right away; the refresh below validates it against the live catalog.
+            lastVersion = persisted.version();
+            snapshot.set(persisted);
+        }
+        refreshAsync();
+
+        long refreshPeriod = refreshAfterMs();
+        refreshScheduler.scheduleWithFixedDelay(this::refreshAsync, refreshPeriod, refreshPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        refreshScheduler.shutdownNow();
     }
 
     public DatabaseSchema getSchema() {
-        long currentTime = System.currentTimeMillis();
+        return getSnapshot().schema();
+    }
 
-        if (cachedSchema == null || (currentTime - lastCacheTime) > CACHE_TTL_MS) {
-            log.debug("Refreshing database schema cache");
-            cachedSchema = schemaAnalyzer.analyzeSchema();
-            lastCacheTime = currentTime;
+    /**
+     * Stable hash of table names, column names and column types. Changes whenever the schema does,
+     * so downstream caches can use it to drop entries built against an older schema.
+     */
+    public String getSchemaFingerprint() {
+        return getSnapshot().fingerprint();
+    }
+
+    /**
+     * Monotonic version that increases every time a refresh observes a schema change.
+     */
+    public long getSchemaVersion() {
+        return getSnapshot().version();
+    }
+
+    public SchemaSnapshot getSnapshot() {
+        SchemaSnapshot current = snapshot.get();
+        if (current == null) {
+            // Only happens before the initial load has finished; wait for the in-flight load.
+            return refreshAsync().join();
         }
 
-        return cachedSchema;
+        long age = System.currentTimeMillis() - current.loadedAt();
+        if (age > refreshAfterMs()) {
+            refreshAsync();
+        }
+        if (age > config.getSchemaCacheTtlMs()) {
+            log.debug("Serving schema snapshot {} ms past its TTL while a refresh is running", age - config.getSchemaCacheTtlMs());
+        }
+        return current;
     }
 
     public void invalidateCache() {
-        cachedSchema = null;
-        lastCacheTime = 0;
+        snapshot.set(null);
+        refreshAsync();
+    }
+
+    /**
+     * Starts a reload unless one is already running, in which case the running one is returned.
+     */
+    public CompletableFuture<SchemaSnapshot> refreshAsync() {
+        while (true) {
+            CompletableFuture<SchemaSnapshot> running = inFlightRefresh.get();
+            if (running != null) {
+                return running;
+            }
+
+            CompletableFuture<SchemaSnapshot> refresh = new CompletableFuture<>();
+            if (inFlightRefresh.compareAndSet(null, refresh)) {
+                try {
+                    refreshScheduler.execute(() -> runRefresh(refresh));
+                } catch (RuntimeException e) {
+                    inFlightRefresh.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(e);
+                }
+                return refresh;
+            }
+        }
+    }
+
+    private void runRefresh(CompletableFuture<SchemaSnapshot> refresh) {
+        try {
+            SchemaSnapshot current = snapshot.get();
+            SchemaSnapshot loaded = load(current);
+            lastVersion = loaded.version();
+            snapshot.set(loaded);
+            if (current == null || current.version() != loaded.version()) {
+                snapshotStore.save(loaded);
+            }
+            refresh.complete(loaded);
+        } catch (Exception e) {
+            log.warn("Schema refresh failed, keeping previous snapshot", e);
+            refresh.completeExceptionally(e);
+        } finally {
+            inFlightRefresh.compareAndSet(refresh, null);
+        }
+    }
+
+    private SchemaSnapshot load(SchemaSnapshot current) {
+        long now = System.currentTimeMillis();
+
+        // Column signatures do not cover key changes, so a full load still runs every few refreshes.
+        boolean incremental = current != null && config.isIncrementalRefresh()
+                && refreshesSinceFullLoad < config.getFullRefreshInterval();
+
+        if (!incremental) {
+            log.debug("Refreshing database schema cache");
+            refreshesSinceFullLoad = 0;
+            DatabaseSchema schema = schemaAnalyzer.analyzeSchema();
+            if (current != null && current.schema().equals(schema)) {
+                return new SchemaSnapshot(current.schema(), current.fingerprint(), current.version(), now);
+            }
+            return new SchemaSnapshot(schema, fingerprint(schema), lastVersion + 1, now);
+        }
+
+        refreshesSinceFullLoad++;
+        DatabaseSchema patched = changeDetector.detectAndApply(current.schema());
+        if (patched == null) {
+            return new SchemaSnapshot(current.schema(), current.fingerprint(), current.version(), now);
+        }
+        return new SchemaSnapshot(patched, fingerprint(patched), lastVersion + 1, now);
+    }
+
+    private long refreshAfterMs() {
+        long ttl = config.getSchemaCacheTtlMs();
+        return Math.max(1_000, ttl - Math.min(config.getSchemaRefreshAheadMs(), ttl / 2));
+    }
+
+    private String fingerprint(DatabaseSchema schema) {
+        long hash = 17;
+        for (Map.Entry<String, DatabaseSchema.TableInfo> table : new TreeMap<>(schema.getTables()).entrySet()) {
+            hash = 31 * hash + table.getKey().hashCode();
+            for (DatabaseSchema.ColumnInfo column : new TreeMap<>(table.getValue().getColumns()).values()) {
+                hash = 31 * hash + column.getColumnName().hashCode();
+                hash = 31 * hash + String.valueOf(column.getDataType()).hashCode();
+            }
+        }
+        return Long.toHexString(hash);
+    }
+
+    public record SchemaSnapshot(DatabaseSchema schema, String fingerprint, long version, long loadedAt) {
     }
-}
\ No newline at end of file
+}
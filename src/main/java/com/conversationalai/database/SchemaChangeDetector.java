@@ -0,0 +1,58 @@
+package com.conversationalai.database;
+
+import com.conversationalai.dto.DatabaseSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compares per-table column signatures read from the catalog with the cached schema and re-introspects
+ * only the tables that were added or changed. A refresh where nothing changed costs one catalog query.
+ */
+@Slf4j
+@Component
+public class SchemaChangeDetector {
+
+    private final DatabaseSchemaAnalyzer schemaAnalyzer;
+
+    public SchemaChangeDetector(DatabaseSchemaAnalyzer schemaAnalyzer) {
+        this.schemaAnalyzer = schemaAnalyzer;
+    }
+
+    /**
+     * Returns the patched schema, or {@code null} when the catalog matches {@code current}.
+     */
+    public DatabaseSchema detectAndApply(DatabaseSchema current) {
+        Map<String, Long> catalogSignatures = schemaAnalyzer.readTableSignatures();
+
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Long> entry : catalogSignatures.entrySet()) {
+            DatabaseSchema.TableInfo cached = current.getTables().get(entry.getKey());
+            if (cached == null || DatabaseSchemaAnalyzer.tableSignature(cached) != entry.getValue()) {
+                changed.add(entry.getKey());
+            }
+        }
+
+        Set<String> removed = new HashSet<>(current.getTables().keySet());
+        removed.removeAll(catalogSignatures.keySet());
+
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return null;
+        }
+
+        log.debug("Schema changed: re-introspecting {} tables, removing {}", changed, removed);
+        try {
+            Map<String, DatabaseSchema.TableInfo> tables = new HashMap<>(current.getTables());
+            tables.keySet().removeAll(removed);
+            tables.putAll(schemaAnalyzer.analyzeTables(changed));
+            return DatabaseSchema.builder().tables(tables).build();
+        } catch (Exception e) {
+            log.error("Error re-introspecting changed tables {}", changed, e);
+            throw new RuntimeException("Failed to re-introspect changed tables", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Persists the schema snapshot as JSON so that a restarted instance can serve requests immediately
+ * and validate the live catalog in the background. Disabled unless {@code schema-snapshot-path} is set.
+ */
+@Slf4j
+@Component
+public class SchemaSnapshotStore {
+
+    private final ObjectMapper objectMapper;
+    private final Path snapshotPath;
+
+    public SchemaSnapshotStore(ConversationalAIProperties properties) {
+        String path = properties.getDatabase().getSchemaSnapshotPath();
+        this.snapshotPath = path != null && !path.isBlank() ? Paths.get(path) : null;
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    public boolean isEnabled() {
+        return snapshotPath != null;
+    }
+
+    public SchemaCache.SchemaSnapshot load() {
+        if (!isEnabled() || !Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+
+        try {
+            PersistedSnapshot persisted = objectMapper.readValue(snapshotPath.toFile(), PersistedSnapshot.class);
+            if (persisted.getSchema() == null || persisted.getSchema().getTables() == null) {
+                return null;
+            }
+            log.info("Loaded schema snapshot with {} tables from {}", persisted.getSchema().getTables().size(), snapshotPath);
+            return new SchemaCache.SchemaSnapshot(persisted.getSchema(), persisted.getFingerprint(),
+                    persisted.getVersion(), persisted.getSavedAt());
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable schema snapshot at {}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    public void save(SchemaCache.SchemaSnapshot snapshot) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tempFile = Files.createTempFile(parent, "schema-snapshot", ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), new PersistedSnapshot(snapshot.version(), snapshot.fingerprint(),
+                    System.currentTimeMillis(), snapshot.schema()));
+            Files.move(tempFile, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Saved schema snapshot version {} to {}", snapshot.version(), snapshotPath);
+        } catch (Exception e) {
+            log.warn("Failed to save schema snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PersistedSnapshot {
+        private long version;
+        private String fingerprint;
+        private long savedAt;
+        private DatabaseSchema schema;
+    }
+}
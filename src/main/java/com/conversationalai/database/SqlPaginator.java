@@ -0,0 +1,261 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.QueryResult;
+import com.conversationalai.security.ParsedStatement;
+import com.conversationalai.security.SecurityValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Rewrites generated SELECTs into bounded pages using the dialect's LIMIT or FETCH FIRST syntax.
+ * Single-table queries whose projection includes the primary key are paged by key (keyset pagination),
+ * everything else falls back to OFFSET paging. OFFSET pages of an unordered query are ordered by the
+ * primary key, or by every projected column, so that consecutive pages neither overlap nor skip rows.
+ */
+@Slf4j
+@Component
+public class SqlPaginator {
+
+    private static final Pattern ALREADY_LIMITED = Pattern.compile(
+            "\\b(limit\\s+\\d|limit\\s+\\?|fetch\\s+(first|next)|top\\s*\\(?\\s*\\d|rownum)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\border\\s+by\\b", Pattern.CASE_INSENSITIVE);
+    /** Clauses that make the primary key unusable as a row key of the result, or as a sort key. */
+    private static final Set<String> AGGREGATING = Set.of("GROUP", "HAVING", "DISTINCT", "UNION", "INTERSECT", "EXCEPT");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityValidator securityValidator;
+    private final boolean enabled;
+    private final int pageSize;
+    private volatile Dialect dialect;
+
+    public SqlPaginator(JdbcTemplate jdbcTemplate, SecurityValidator securityValidator,
+                        ConversationalAIProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.securityValidator = securityValidator;
+        this.enabled = properties.getDatabase().isPaginationEnabled();
+        this.pageSize = Math.max(1, Math.min(properties.getDatabase().getPageSize(),
+                properties.getSecurity().getMaxRecordsPerOperation()));
+    }
+
+    /**
+     * Returns the first page of {@code sql}, or {@code null} when the query should run as is
+     * (pagination disabled, not a SELECT, or already limited by the model).
+     */
+    public PagedQuery firstPage(String sql, Object[] parameters, DatabaseSchema.TableInfo table) {
+        String baseSql = trimStatement(sql);
+        if (!enabled || !baseSql.regionMatches(true, 0, "select", 0, 6) || ALREADY_LIMITED.matcher(baseSql).find()) {
+            return null;
+        }
+
+        ParsedStatement statement = securityValidator.parse(baseSql);
+        List<String> keyColumns = keysetColumns(statement, table);
+        if (keyColumns == null && !statement.getWords().contains("ORDER")) {
+            String ordering = offsetOrdering(statement, table);
+            if (ordering != null) {
+                baseSql += " ORDER BY " + ordering;
+            }
+        }
+        Object[] baseParameters = parameters != null ? parameters : new Object[0];
+        return build(baseSql, baseParameters, keyColumns, null, 0, null, false);
+    }
+
+    public PagedQuery nextPage(PageCursor cursor) {
+        return build(cursor.baseSql(), cursor.baseParameters(), cursor.keyColumns(), cursor.afterKey(),
+                cursor.offset(), cursor.totalCount(), cursor.totalCountExact());
+    }
+
+    /**
+     * Returns where the next page starts, or {@code null} when {@code result} was the last page.
+     */
+    public PageCursor cursorAfter(PagedQuery page, QueryResult result) {
+        if (!result.isTruncated() || result.isEmpty()) {
+            return null;
+        }
+
+        long nextOffset = page.offset() + result.size();
+        Object[] afterKey = null;
+        if (page.keyColumns() != null) {
+            int lastRow = result.size() - 1;
+            afterKey = new Object[page.keyColumns().size()];
+            for (int i = 0; i < afterKey.length; i++) {
+                afterKey[i] = result.getValue(lastRow, page.keyColumns().get(i));
+                if (afterKey[i] == null) {
+                    return null;
+                }
+            }
+        }
+        return new PageCursor(page.baseSql(), page.baseParameters(), page.keyColumns(), afterKey, nextOffset,
+                result.getTotalCount(), result.isTotalCountExact());
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    static String trimStatement(String sql) {
+        String trimmed = sql.trim();
+        while (trimmed.endsWith(";")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1).trim();
+        }
+        return trimmed;
+    }
+
+    private PagedQuery build(String baseSql, Object[] baseParameters, List<String> keyColumns, Object[] afterKey,
+                             long offset, Long knownTotal, boolean knownTotalExact) {
+        Dialect dialect = dialect();
+        // One extra row tells whether another page exists without a separate query.
+        int fetchRows = pageSize + 1;
+
+        if (keyColumns != null) {
+            StringBuilder sql = new StringBuilder("SELECT * FROM (").append(baseSql).append(") paged_rows");
+            List<Object> parameters = new ArrayList<>(List.of(baseParameters));
+            if (afterKey != null) {
+                sql.append(" WHERE ").append(keysetPredicate(keyColumns, afterKey, parameters));
+            }
+            sql.append(" ORDER BY ").append(String.join(", ", keyColumns));
+            sql.append(dialect.limitClause(fetchRows, 0));
+            return new PagedQuery(sql.toString(), parameters.toArray(), baseSql, baseParameters, keyColumns,
+                    offset, pageSize, knownTotal, knownTotalExact);
+        }
+
+        String sql = baseSql;
+        if (dialect == Dialect.SQLSERVER && !ORDER_BY.matcher(baseSql).find()) {
+            sql += " ORDER BY (SELECT NULL)";
+        }
+        sql += dialect.limitClause(fetchRows, offset);
+        return new PagedQuery(sql, baseParameters, baseSql, baseParameters, null, offset, pageSize,
+                knownTotal, knownTotalExact);
+    }
+
+    // (k1 > ?) OR (k1 = ? AND k2 > ?) ... rather than row value comparison, which not every database supports.
+    private String keysetPredicate(List<String> keyColumns, Object[] afterKey, List<Object> parameters) {
+        List<String> alternatives = new ArrayList<>();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            List<String> terms = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                terms.add(keyColumns.get(j) + " = ?");
+                parameters.add(afterKey[j]);
+            }
+            terms.add(keyColumns.get(i) + " > ?");
+            parameters.add(afterKey[i]);
+            alternatives.add("(" + String.join(" AND ", terms) + ")");
+        }
+        return "(" + String.join(" OR ", alternatives) + ")";
+    }
+
+    private List<String> keysetColumns(ParsedStatement statement, DatabaseSchema.TableInfo table) {
+        if (!hasPrimaryKey(table) || !statement.isValid() || statement.getTables().size() != 1
+                || statement.isHasDerivedTables() || statement.getWords().contains("ORDER")
+                || statement.getWords().stream().anyMatch(AGGREGATING::contains)
+                || !statement.getTables().iterator().next().equalsIgnoreCase(table.getTableName())) {
+            return null;
+        }
+
+        // The key has to come out of the projection under its own name for the outer ORDER BY and
+        // keyset predicate to see it: SELECT *, SELECT t.*, SELECT id or SELECT t.id AS id.
+        for (String key : table.getPrimaryKeys()) {
+            boolean projected = statement.getSelectItems().stream().anyMatch(item -> item.isStar()
+                    || (key.equalsIgnoreCase(item.column()) && (item.alias() == null || key.equalsIgnoreCase(item.alias()))));
+            if (!projected) {
+                return null;
+            }
+        }
+        return List.copyOf(table.getPrimaryKeys());
+    }
+
+    /**
+     * A sort key that makes OFFSET paging deterministic, or {@code null} when none is known. A plain
+     * query over the target table sorts by its primary key, which may be referenced even when it is not
+     * projected; grouped, distinct and compound queries sort by every projected column instead.
+     */
+    private String offsetOrdering(ParsedStatement statement, DatabaseSchema.TableInfo table) {
+        if (!statement.isValid() || statement.getWords().contains("OFFSET")) {
+            return null;
+        }
+        if (hasPrimaryKey(table) && statement.getTables().size() == 1 && !statement.isHasDerivedTables()
+                && statement.getWords().stream().noneMatch(AGGREGATING::contains)
+                && statement.getTables().iterator().next().equalsIgnoreCase(table.getTableName())) {
+            String qualifier = statement.getTableAliases().entrySet().stream()
+                    .filter(alias -> table.getTableName().equalsIgnoreCase(alias.getValue()))
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(table.getTableName());
+            return table.getPrimaryKeys().stream()
+                    .map(key -> qualifier + "." + key)
+                    .collect(Collectors.joining(", "));
+        }
+
+        List<ParsedStatement.SelectItem> items = statement.getSelectItems();
+        if (items.isEmpty() || items.stream().anyMatch(ParsedStatement.SelectItem::isStar)) {
+            return null;
+        }
+        return IntStream.rangeClosed(1, items.size())
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(", "));
+    }
+
+    private static boolean hasPrimaryKey(DatabaseSchema.TableInfo table) {
+        return table != null && table.getPrimaryKeys() != null && !table.getPrimaryKeys().isEmpty();
+    }
+
+    private Dialect dialect() {
+        Dialect detected = dialect;
+        if (detected == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            detected = Dialect.forProduct(product);
+            log.debug("Using {} pagination for {}", detected, product);
+            dialect = detected;
+        }
+        return detected;
+    }
+
+    enum Dialect {
+        LIMIT,
+        FETCH_FIRST,
+        SQLSERVER;
+
+        static Dialect forProduct(String product) {
+            String name = product != null ? product.toLowerCase(Locale.ROOT) : "";
+            if (name.contains("sql server")) {
+                return SQLSERVER;
+            }
+            if (name.contains("oracle") || name.contains("db2") || name.contains("derby") || name.contains("informix")) {
+                return FETCH_FIRST;
+            }
+            return LIMIT;
+        }
+
+        String limitClause(int rows, long offset) {
+            if (this == LIMIT) {
+                return offset > 0 ? " LIMIT " + rows + " OFFSET " + offset : " LIMIT " + rows;
+            }
+            if (this == FETCH_FIRST && offset == 0) {
+                return " FETCH FIRST " + rows + " ROWS ONLY";
+            }
+            return " OFFSET " + offset + " ROWS FETCH NEXT " + rows + " ROWS ONLY";
+        }
+    }
+
+    public record PagedQuery(String sql, Object[] parameters, String baseSql, Object[] baseParameters,
+                             List<String> keyColumns, long offset, int pageSize,
+                             Long knownTotal, boolean knownTotalExact) {
+    }
+
+    public record PageCursor(String baseSql, Object[] baseParameters, List<String> keyColumns, Object[] afterKey,
+                             long offset, long totalCount, boolean totalCountExact) {
+    }
+}
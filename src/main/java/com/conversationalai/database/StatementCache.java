@@ -0,0 +1,189 @@
+package com.conversationalai.database;
+
+import com.conversationalai.dto.StatementShapeStats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps generated SQL to one canonical text per statement shape, so that LLM outputs differing only in
+ * whitespace or keyword case prepare the same string. Nothing here keeps prepared statements: reuse
+ * happens only where the driver caches statements by text, which most drivers leave off by default.
+ * Shapes are counted across all connections, with prepare times split between new and repeated shapes.
+ */
+class StatementCache {
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "SELECT", "DISTINCT", "FROM", "WHERE", "AND", "OR", "NOT", "IN", "IS", "NULL", "LIKE", "ILIKE",
+            "BETWEEN", "EXISTS", "AS", "ON", "JOIN", "INNER", "LEFT", "RIGHT", "FULL", "OUTER", "CROSS",
+            "GROUP", "BY", "HAVING", "ORDER", "ASC", "DESC", "NULLS", "FIRST", "LAST", "LIMIT", "OFFSET",
+            "FETCH", "NEXT", "ROWS", "ROW", "ONLY", "UNION", "ALL", "CASE", "WHEN", "THEN", "ELSE", "END",
+            "INSERT", "INTO", "VALUES", "UPDATE", "SET", "DELETE", "COUNT", "SUM", "AVG", "MIN", "MAX",
+            "TRUE", "FALSE", "LOWER", "UPPER", "CAST", "COALESCE");
+
+    private final int maxSize;
+    private final Map<String, String> canonicalTexts;
+    private final Map<String, Boolean> shapes;
+
+    private final AtomicLong newShapes = new AtomicLong();
+    private final AtomicLong newShapePrepareNanos = new AtomicLong();
+    private final AtomicLong repeatedShapes = new AtomicLong();
+    private final AtomicLong repeatedShapePrepareNanos = new AtomicLong();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong executeNanos = new AtomicLong();
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.canonicalTexts = lru();
+        this.shapes = lru();
+    }
+
+    private <V> Map<String, V> lru() {
+        return new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    String canonicalize(String sql) {
+        synchronized (canonicalTexts) {
+            String cached = canonicalTexts.get(sql);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String canonical = canonicalForm(sql);
+        synchronized (canonicalTexts) {
+            canonicalTexts.put(sql, canonical);
+        }
+        return canonical;
+    }
+
+    /**
+     * Prepares {@code sql}, which must already be canonical, recording whether its shape was seen before.
+     */
+    PreparedStatement prepare(Connection connection, String sql) throws SQLException {
+        boolean repeated;
+        synchronized (shapes) {
+            repeated = shapes.put(sql, Boolean.TRUE) != null;
+        }
+
+        long start = System.nanoTime();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        long elapsed = System.nanoTime() - start;
+
+        if (repeated) {
+            repeatedShapes.incrementAndGet();
+            repeatedShapePrepareNanos.addAndGet(elapsed);
+        } else {
+            newShapes.incrementAndGet();
+            newShapePrepareNanos.addAndGet(elapsed);
+        }
+        return statement;
+    }
+
+    void recordExecution(long nanos) {
+        executions.incrementAndGet();
+        executeNanos.addAndGet(nanos);
+    }
+
+    StatementShapeStats getStats() {
+        int size;
+        synchronized (shapes) {
+            size = shapes.size();
+        }
+        return StatementShapeStats.builder()
+                .shapes(size)
+                .repeatedShapes(repeatedShapes.get())
+                .newShapes(newShapes.get())
+                .avgNewShapePrepareMicros(averageMicros(newShapePrepareNanos, newShapes))
+                .avgRepeatedShapePrepareMicros(averageMicros(repeatedShapePrepareNanos, repeatedShapes))
+                .executions(executions.get())
+                .avgExecuteMicros(averageMicros(executeNanos, executions))
+                .build();
+    }
+
+    private double averageMicros(AtomicLong nanos, AtomicLong count) {
+        long n = count.get();
+        return n == 0 ? 0 : nanos.get() / 1000.0 / n;
+    }
+
+    /**
+     * Collapses whitespace, drops it inside parentheses and before commas, and upper-cases known
+     * keywords. Quoted literals and identifiers are copied unchanged, as are other unquoted words,
+     * because some databases treat unquoted table names case-sensitively. Statements with comments or
+     * backslash escapes in literals are returned as they are: collapsing the newline that ends a line
+     * comment, or misreading where a MySQL {@code \'} literal ends, would change what the statement does.
+     */
+    static String canonicalForm(String sql) {
+        String trimmed = SqlPaginator.trimStatement(sql);
+        StringBuilder out = new StringBuilder(trimmed.length());
+        boolean pendingSpace = false;
+        int i = 0;
+        while (i < trimmed.length()) {
+            char c = trimmed.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            if (pendingSpace && out.length() > 0 && c != ',' && c != ')' && out.charAt(out.length() - 1) != '(') {
+                out.append(' ');
+            }
+            pendingSpace = false;
+
+            if (c == '-' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '-'
+                    || c == '/' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '*'
+                    || c == '#') {
+                return sql;
+            }
+
+            if (c == '\'' || c == '"' || c == '`') {
+                int end = i + 1;
+                while (end < trimmed.length()) {
+                    if (trimmed.charAt(end) == '\\') {
+                        return sql;
+                    }
+                    if (trimmed.charAt(end) == c) {
+                        if (end + 1 < trimmed.length() && trimmed.charAt(end + 1) == c) {
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    end++;
+                }
+                end = Math.min(end + 1, trimmed.length());
+                out.append(trimmed, i, end);
+                i = end;
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = i + 1;
+                while (end < trimmed.length()
+                        && (Character.isLetterOrDigit(trimmed.charAt(end)) || trimmed.charAt(end) == '_')) {
+                    end++;
+                }
+                String word = trimmed.substring(i, end);
+                String upper = word.toUpperCase(Locale.ROOT);
+                out.append(KEYWORDS.contains(upper) ? upper : word);
+                i = end;
+            } else {
+                out.append(c);
+                if (c == ',') {
+                    pendingSpace = true;
+                }
+                i++;
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long size;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,13 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ConnectionPoolStats {
+    private int leased;
+    private int pending;
+    private int available;
+    private int max;
+}
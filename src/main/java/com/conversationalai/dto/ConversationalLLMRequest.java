@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -12,4 +14,18 @@ import lombok.NoArgsConstructor;
 public class ConversationalLLMRequest {
     private String userInput;
     private DatabaseSchema schema;
+    private long schemaVersion;
+    /** {@code @ConversationalEntity} details for the tables in {@link #schema}, keyed by table name. */
+    private Map<String, EntityInfo> entities;
+    /** Compact state of earlier turns in the session; {@code null} for a first turn. */
+    private String conversationContext;
+    /** Scheduling class for the model call; {@code null} is treated as {@link Priority#INTERACTIVE}. */
+    private Priority priority;
+
+    public enum Priority {
+        /** A user is waiting on the answer. */
+        INTERACTIVE,
+        /** Warm-ups, prefetches and other work nobody is waiting on; only admitted when no interactive request is queued. */
+        BACKGROUND
+    }
 }
\ No newline at end of file
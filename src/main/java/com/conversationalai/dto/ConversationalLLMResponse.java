@@ -6,8 +6,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class ConversationalLLMResponse {
@@ -19,5 +21,7 @@ public class ConversationalLLMResponse {
     private boolean valid;
     private boolean needsMoreInfo;
     private String[] missingFields;
+    /** Column values the user already gave in a MISSING_INFO turn. */
+    private Map<String, Object> providedFields;
     private String errorMessage;
 }
\ No newline at end of file
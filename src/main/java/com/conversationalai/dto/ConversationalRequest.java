@@ -10,4 +10,7 @@ public class ConversationalRequest {
     private String sessionId;
     private String userId;
     private Object context;
+    private String continuationToken;
+    /** Scheduling class for model calls made for this request; {@code null} means interactive. */
+    private ConversationalLLMRequest.Priority priority;
 }
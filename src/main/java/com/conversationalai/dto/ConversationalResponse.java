@@ -1,5 +1,6 @@
 package com.conversationalai.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.Builder;
 import java.util.List;
@@ -12,7 +13,13 @@ public class ConversationalResponse {
     private boolean success;
     private String intent;
     private String operation;
+    private QueryResult result;
+    /** Row-map view of {@link #result}, kept for existing Java callers. */
+    @JsonIgnore
     private List<Map<String, Object>> data;
+    private boolean truncated;
+    private Long totalCount;
+    private String continuationToken;
     private String errorMessage;
     private boolean needsMoreInfo;
     private List<String> requiredFields;
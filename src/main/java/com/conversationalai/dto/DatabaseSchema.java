@@ -1,17 +1,23 @@
 package com.conversationalai.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Builder;
+import lombok.NoArgsConstructor;
 import java.util.Map;
 import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
+@NoArgsConstructor
 public class DatabaseSchema {
     private Map<String, TableInfo> tables;
 
     @Data
     @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
     public static class TableInfo {
         private String tableName;
         private Map<String, ColumnInfo> columns;
@@ -21,6 +27,8 @@ public class DatabaseSchema {
 
     @Data
     @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
     public static class ColumnInfo {
         private String columnName;
         private String dataType;
@@ -32,6 +40,8 @@ public class DatabaseSchema {
 
     @Data
     @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
     public static class ForeignKeyInfo {
         private String referencedTable;
         private String referencedColumn;
@@ -0,0 +1,19 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A {@code @ConversationalEntity} resolved against the schema: column names are the table's own spelling.
+ */
+@Data
+@Builder
+public class EntityInfo {
+    private String tableName;
+    private String description;
+    private List<String> synonyms;
+    private List<String> searchableFields;
+    private List<String> uniqueFields;
+}
@@ -0,0 +1,17 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FastPathStats {
+    private long routed;
+    private long lowConfidence;
+    private long unmatched;
+
+    public double getBypassRate() {
+        long requests = routed + lowConfidence + unmatched;
+        return requests == 0 ? 0.0 : (double) routed / requests;
+    }
+}
@@ -0,0 +1,28 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LLMSchedulerStats {
+    private String model;
+    private int slots;
+    private int active;
+    private int interactiveQueued;
+    private int backgroundQueued;
+    private long completed;
+    private long rejected;
+    private long timedOut;
+    private long totalWaitMs;
+    private long maxWaitMs;
+
+    public int getQueueDepth() {
+        return interactiveQueued + backgroundQueued;
+    }
+
+    public double getAverageWaitMs() {
+        long started = completed + active;
+        return started == 0 ? 0 : (double) totalWaitMs / started;
+    }
+}
@@ -0,0 +1,13 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PromptCacheStats {
+    private long prefixHits;
+    private long prefixMisses;
+    private long promptTokensEvaluated;
+    private long promptTokensSaved;
+}
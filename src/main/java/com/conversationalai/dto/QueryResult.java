@@ -0,0 +1,172 @@
+package com.conversationalai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Query rows in columnar form: the column names are stored once and every row is a plain value array
+ * in column order. Serializes as {@code {"columns": [...], "values": [[...], ...]}}.
+ */
+@Data
+@Builder(toBuilder = true)
+public class QueryResult {
+    private String[] columns;
+    private List<Object[]> values;
+    private boolean truncated;
+    /** Rows matching the query; when not {@link #totalCountExact}, only known to be more than this. */
+    private long totalCount;
+    private boolean totalCountExact;
+    private long offset;
+    private String continuationToken;
+
+    public static QueryResult fromRows(List<Map<String, Object>> rows) {
+        Set<String> columns = new LinkedHashSet<>();
+        rows.forEach(row -> columns.addAll(row.keySet()));
+        String[] header = columns.toArray(new String[0]);
+
+        List<Object[]> values = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Object[] rowValues = new Object[header.length];
+            for (int i = 0; i < header.length; i++) {
+                rowValues[i] = row.get(header[i]);
+            }
+            values.add(rowValues);
+        }
+        return QueryResult.builder()
+                .columns(header)
+                .values(values)
+                .totalCount(values.size())
+                .totalCountExact(true)
+                .build();
+    }
+
+    /**
+     * A copy whose header, row list and rows can be changed without affecting this result, for handing
+     * one result to several requests.
+     */
+    public QueryResult copy() {
+        List<Object[]> copiedValues = null;
+        if (values != null) {
+            copiedValues = new ArrayList<>(values.size());
+            for (Object[] row : values) {
+                copiedValues.add(row.clone());
+            }
+        }
+        return toBuilder()
+                .columns(columns != null ? columns.clone() : null)
+                .values(copiedValues)
+                .build();
+    }
+
+    public int size() {
+        return values != null ? values.size() : 0;
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Case-insensitive, like the maps JDBC rows used to be returned in. Returns -1 for unknown columns.
+     */
+    public int columnIndex(String column) {
+        if (columns != null) {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i].equalsIgnoreCase(column)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public Object getValue(int row, String column) {
+        int index = columnIndex(column);
+        return index >= 0 ? values.get(row)[index] : null;
+    }
+
+    /**
+     * Read-only map view over the rows for callers written against {@code List<Map<String, Object>>}.
+     * Row maps are created on access and share the column header.
+     */
+    @JsonIgnore
+    public List<Map<String, Object>> getRows() {
+        if (values == null) {
+            return List.of();
+        }
+        return new AbstractList<>() {
+            @Override
+            public Map<String, Object> get(int index) {
+                return new RowView(values.get(index));
+            }
+
+            @Override
+            public int size() {
+                return values.size();
+            }
+        };
+    }
+
+    private final class RowView extends AbstractMap<String, Object> {
+        private final Object[] row;
+
+        private RowView(Object[] row) {
+            this.row = row;
+        }
+
+        @Override
+        public Object get(Object key) {
+            int index = key instanceof String column ? columnIndex(column) : -1;
+            return index >= 0 ? row[index] : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String column && columnIndex(column) >= 0;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < row.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(columns[index], row[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return row.length;
+                }
+            };
+        }
+    }
+}
@@ -11,45 +11,60 @@ import java.util.stream.Collectors;
 public class ResponseFormatter {
 
     public String formatDataResponse(String intent, List<Map<String, Object>> data, String baseMessage) {
-        if (data == null || data.isEmpty()) {
+        return formatDataResponse(intent, QueryResult.fromRows(data != null ? data : List.of()), baseMessage);
+    }
+
+    public String formatDataResponse(String intent, QueryResult result, String baseMessage) {
+        if (result == null || result.isEmpty()) {
             return "🔍 **No Results Found**\n\nI couldn't find any records matching your search criteria. You might want to:\n• Check your spelling\n• Try a broader search term\n• Use partial matches (e.g., \"John\" instead of \"Johnathan\")";
         }
 
         StringBuilder response = new StringBuilder();
         response.append(baseMessage).append("\n\n");
 
-        if (data.size() == 1) {
+        if (result.size() == 1 && !result.isTruncated() && result.getOffset() == 0) {
 
-            Map<String, Object> record = data.get(0);
+            String[] columns = result.getColumns();
+            Object[] record = result.getValues().get(0);
             response.append("📄 **Record Details:**\n");
-            record.forEach((key, value) -> {
-                if (!"password".equalsIgnoreCase(key)) { // Hide sensitive data
-                    String displayKey = formatFieldName(key);
-                    response.append("• **").append(displayKey).append(":** ").append(value).append("\n");
+            for (int i = 0; i < columns.length; i++) {
+                if (!"password".equalsIgnoreCase(columns[i])) { // Hide sensitive data
+                    String displayKey = formatFieldName(columns[i]);
+                    response.append("• **").append(displayKey).append(":** ").append(record[i]).append("\n");
                 }
-            });
+            }
         } else {
 
-            response.append("📊 **Found ").append(data.size()).append(" records:**\n\n");
+            long total = Math.max(result.getTotalCount(), result.size());
+            response.append("📊 **Found ").append(result.isTotalCountExact() ? "" : "more than ")
+                    .append(total).append(" records:**\n\n");
 
-            for (int i = 0; i < Math.min(data.size(), 10); i++) {
-                Map<String, Object> record = data.get(i);
-                response.append("**Record ").append(i + 1).append(":**\n");
+            int nameColumn = result.columnIndex("name");
+            int emailColumn = result.columnIndex("email");
+            int idColumn = result.columnIndex("id");
+            for (int i = 0; i < Math.min(result.size(), 10); i++) {
+                Object[] record = result.getValues().get(i);
+                response.append("**Record ").append(result.getOffset() + i + 1).append(":**\n");
 
-                if (record.containsKey("name")) {
-                    response.append("• Name: ").append(record.get("name")).append("\n");
+                if (nameColumn >= 0) {
+                    response.append("• Name: ").append(record[nameColumn]).append("\n");
                 }
-                if (record.containsKey("email")) {
-                    response.append("• Email: ").append(record.get("email")).append("\n");
+                if (emailColumn >= 0) {
+                    response.append("• Email: ").append(record[emailColumn]).append("\n");
                 }
-                if (record.containsKey("id")) {
-                    response.append("• ID: ").append(record.get("id")).append("\n");
+                if (idColumn >= 0) {
+                    response.append("• ID: ").append(record[idColumn]).append("\n");
                 }
                 response.append("\n");
             }
 
-            if (data.size() > 10) {
-                response.append("... and ").append(data.size() - 10).append(" more records.\n");
+            long shown = result.getOffset() + Math.min(result.size(), 10);
+            if (total > shown) {
+                response.append("... and ").append(result.isTotalCountExact() ? "" : "more than ")
+                        .append(total - shown).append(" more records.\n");
+            }
+            if (result.getContinuationToken() != null) {
+                response.append("\n➡️ Say **\"show more\"** to see the next page.\n");
             }
         }
 
@@ -59,8 +74,12 @@ public class ResponseFormatter {
     }
 
     public String formatCountResponse(List<Map<String, Object>> data, String baseMessage) {
-        if (data != null && !data.isEmpty()) {
-            Object count = data.get(0).values().iterator().next();
+        return formatCountResponse(QueryResult.fromRows(data != null ? data : List.of()), baseMessage);
+    }
+
+    public String formatCountResponse(QueryResult result, String baseMessage) {
+        if (result != null && !result.isEmpty() && result.getColumns().length > 0) {
+            Object count = result.getValues().get(0)[0];
             return "🔢 **Count Results**\n\nI found **" + count + "** records that match your criteria.\n\n" +
                     "Would you like me to show you the actual records or perform another search?";
         }
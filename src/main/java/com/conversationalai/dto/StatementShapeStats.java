@@ -0,0 +1,20 @@
+package com.conversationalai.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * How often generated statement shapes repeat, counted across all connections. Says nothing about
+ * whether a connection reused a prepared statement; that is up to the driver's own statement cache.
+ */
+@Data
+@Builder
+public class StatementShapeStats {
+    private int shapes;
+    private long repeatedShapes;
+    private long newShapes;
+    private double avgNewShapePrepareMicros;
+    private double avgRepeatedShapePrepareMicros;
+    private long executions;
+    private double avgExecuteMicros;
+}
@@ -0,0 +1,79 @@
+package com.conversationalai.entity;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that lists the application's {@code @ConversationalEntity} classes in
+ * {@value EntityScanner#INDEX_LOCATION} at compile time, so {@link EntityScanner} reads that list instead
+ * of scanning the classpath. Entries from an earlier incremental compile are kept; ones whose class is
+ * gone or no longer annotated are skipped when the index is read. Writes nothing when no entity is found,
+ * so this library's own jar never ships an index.
+ */
+@SupportedAnnotationTypes(ConversationalEntityIndexer.ANNOTATION)
+public class ConversationalEntityIndexer extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.conversationalai.annotation.ConversationalEntity";
+
+    private final Set<String> entities = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element instanceof TypeElement type) {
+                    entities.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+                }
+            }
+        }
+        if (roundEnv.processingOver() && !entities.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        Set<String> index = new TreeSet<>(entities);
+        try {
+            FileObject existing = processingEnv.getFiler()
+                    .getResource(StandardLocation.CLASS_OUTPUT, "", EntityScanner.INDEX_LOCATION);
+            try (Reader reader = existing.openReader(true); BufferedReader lines = new BufferedReader(reader)) {
+                lines.lines().map(String::trim).filter(line -> !line.isEmpty()).forEach(index::add);
+            }
+        } catch (IOException e) {
+            // No index from an earlier compile.
+        }
+
+        try {
+            FileObject file = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", EntityScanner.INDEX_LOCATION);
+            try (Writer writer = file.openWriter()) {
+                for (String entity : index) {
+                    writer.write(entity);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write " + EntityScanner.INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+}
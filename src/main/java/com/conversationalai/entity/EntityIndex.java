@@ -0,0 +1,156 @@
+package com.conversationalai.entity;
+
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.EntityInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable join of the scanned {@code @ConversationalEntity} classes with one {@link DatabaseSchema}:
+ * synonym to table, and per table its description, searchable columns and unique keys. Entities whose
+ * table is not in the schema are left out.
+ */
+@Slf4j
+public final class EntityIndex {
+
+    public static final EntityIndex EMPTY = new EntityIndex(null, Map.of(), Map.of());
+
+    private final DatabaseSchema schema;
+    private final Map<String, String> synonyms;
+    private final Map<String, EntityInfo> entities;
+
+    private EntityIndex(DatabaseSchema schema, Map<String, String> synonyms, Map<String, EntityInfo> entities) {
+        this.schema = schema;
+        this.synonyms = synonyms;
+        this.entities = entities;
+    }
+
+    static EntityIndex build(List<EntityScanner.EntityDefinition> definitions, DatabaseSchema schema) {
+        if (definitions.isEmpty() || schema == null || schema.getTables() == null) {
+            return new EntityIndex(schema, Map.of(), Map.of());
+        }
+
+        Map<String, String> synonyms = new LinkedHashMap<>();
+        Map<String, EntityInfo> entities = new LinkedHashMap<>();
+        for (EntityScanner.EntityDefinition definition : definitions) {
+            String table = resolveTable(definition, schema);
+            if (table == null) {
+                log.debug("No table found for @ConversationalEntity {}", definition.className());
+                continue;
+            }
+            DatabaseSchema.TableInfo tableInfo = schema.getTables().get(table);
+
+            Set<String> names = new LinkedHashSet<>();
+            if (!definition.synonym().isBlank()) {
+                names.add(definition.synonym().trim().toLowerCase(Locale.ROOT));
+            }
+            names.add(definition.simpleName().toLowerCase(Locale.ROOT));
+            names.add(words(definition.simpleName()));
+            names.forEach(name -> synonyms.putIfAbsent(name, table));
+
+            entities.put(table, EntityInfo.builder()
+                    .tableName(table)
+                    .description(definition.description().isBlank() ? null : definition.description())
+                    .synonyms(List.copyOf(names))
+                    .searchableFields(columns(definition.searchableFields(), tableInfo))
+                    .uniqueFields(columns(definition.uniqueFields(), tableInfo))
+                    .build());
+        }
+
+        log.info("Indexed {} conversational entities against {} tables", entities.size(), schema.getTables().size());
+        return new EntityIndex(schema, Map.copyOf(synonyms), Map.copyOf(entities));
+    }
+
+    boolean isFor(DatabaseSchema schema) {
+        return this.schema == schema;
+    }
+
+    /** Lower-cased synonym to table name. */
+    public Map<String, String> getSynonyms() {
+        return synonyms;
+    }
+
+    public EntityInfo entity(String table) {
+        if (table == null) {
+            return null;
+        }
+        EntityInfo entity = entities.get(table);
+        if (entity != null) {
+            return entity;
+        }
+        return entities.entrySet().stream()
+                .filter(entry -> entry.getKey().equalsIgnoreCase(table))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+    }
+
+    public Map<String, EntityInfo> entitiesFor(DatabaseSchema schema) {
+        Map<String, EntityInfo> selected = new LinkedHashMap<>();
+        if (schema != null && schema.getTables() != null) {
+            schema.getTables().keySet().forEach(table -> {
+                EntityInfo entity = entities.get(table);
+                if (entity != null) {
+                    selected.put(table, entity);
+                }
+            });
+        }
+        return selected;
+    }
+
+    /** Explicit JPA table name first, then the class name as snake case, singular or plural. */
+    private static String resolveTable(EntityScanner.EntityDefinition definition, DatabaseSchema schema) {
+        List<String> candidates = new ArrayList<>();
+        if (definition.tableName() != null && !definition.tableName().isBlank()) {
+            candidates.add(definition.tableName());
+        }
+        String snake = words(definition.simpleName()).replace(' ', '_');
+        candidates.add(snake);
+        candidates.add(snake + "s");
+        candidates.add(snake + "es");
+        if (snake.endsWith("y")) {
+            candidates.add(snake.substring(0, snake.length() - 1) + "ies");
+        }
+
+        for (String candidate : candidates) {
+            for (String table : schema.getTables().keySet()) {
+                if (table.equalsIgnoreCase(candidate)) {
+                    return table;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<String> columns(String[] fields, DatabaseSchema.TableInfo table) {
+        List<String> columns = new ArrayList<>();
+        for (String field : fields) {
+            String snake = words(field).replace(' ', '_');
+            table.getColumns().keySet().stream()
+                    .filter(column -> column.equalsIgnoreCase(field) || column.equalsIgnoreCase(snake))
+                    .findFirst()
+                    .ifPresent(columns::add);
+        }
+        return List.copyOf(columns);
+    }
+
+    /** "OrderItem" and "orderItem" become "order item". */
+    private static String words(String name) {
+        StringBuilder words = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(name.charAt(i - 1))) {
+                words.append(' ');
+            }
+            words.append(c == '_' ? ' ' : Character.toLowerCase(c));
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,155 @@
+package com.conversationalai.entity;
+
+import com.conversationalai.annotation.ConversationalEntity;
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Finds {@code @ConversationalEntity} classes once at startup and joins them to the current schema. When
+ * the application was compiled with {@link ConversationalEntityIndexer}, the classes listed in its
+ * {@value #INDEX_LOCATION} files are read and no classpath scan happens; otherwise the base packages are
+ * scanned. Only annotation metadata is read; the entity classes are not loaded.
+ */
+@Slf4j
+@Component
+public class EntityScanner {
+
+    static final String INDEX_LOCATION = "META-INF/conversationalai/entities";
+
+    private static final String JPA_TABLE = "jakarta.persistence.Table";
+
+    private final List<EntityDefinition> definitions;
+    private final AtomicReference<EntityIndex> index = new AtomicReference<>(EntityIndex.EMPTY);
+
+    public EntityScanner(ConversationalAIProperties properties, BeanFactory beanFactory) {
+        List<String> basePackages = basePackages(properties, beanFactory);
+        List<String> indexed = properties.getEntity().isUseIndex() ? readIndex() : null;
+        this.definitions = indexed != null ? fromIndex(indexed, basePackages) : scan(basePackages);
+    }
+
+    /** The index for {@code schema}, rebuilt only when the schema instance changes. */
+    public EntityIndex indexFor(DatabaseSchema schema) {
+        EntityIndex current = index.get();
+        if (current.isFor(schema)) {
+            return current;
+        }
+        EntityIndex built = EntityIndex.build(definitions, schema);
+        index.set(built);
+        return built;
+    }
+
+    private List<String> basePackages(ConversationalAIProperties properties, BeanFactory beanFactory) {
+        String[] configured = properties.getEntity().getBasePackages();
+        if (configured.length > 0) {
+            return Arrays.asList(configured);
+        }
+        return AutoConfigurationPackages.has(beanFactory) ? AutoConfigurationPackages.get(beanFactory) : List.of();
+    }
+
+    private List<EntityDefinition> scan(List<String> basePackages) {
+        ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false);
+        provider.addIncludeFilter(new AnnotationTypeFilter(ConversationalEntity.class));
+
+        long start = System.currentTimeMillis();
+        List<EntityDefinition> found = new ArrayList<>();
+        for (String basePackage : basePackages) {
+            for (BeanDefinition candidate : provider.findCandidateComponents(basePackage)) {
+                if (candidate instanceof AnnotatedBeanDefinition annotated) {
+                    found.add(definitionOf(annotated.getMetadata()));
+                }
+            }
+        }
+        log.debug("Found {} @ConversationalEntity classes in {} in {} ms",
+                found.size(), basePackages, System.currentTimeMillis() - start);
+        return List.copyOf(found);
+    }
+
+    /** Class names from every index on the classpath, or {@code null} when there is none. */
+    private List<String> readIndex() {
+        try {
+            Enumeration<URL> indexes = Objects.requireNonNull(ClassUtils.getDefaultClassLoader())
+                    .getResources(INDEX_LOCATION);
+            if (!indexes.hasMoreElements()) {
+                return null;
+            }
+            Set<String> classNames = new LinkedHashSet<>();
+            while (indexes.hasMoreElements()) {
+                try (InputStream in = indexes.nextElement().openStream()) {
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8).lines()
+                            .map(String::trim)
+                            .filter(line -> !line.isEmpty())
+                            .forEach(classNames::add);
+                }
+            }
+            return List.copyOf(classNames);
+        } catch (IOException e) {
+            log.warn("Could not read {}, scanning the classpath instead: {}", INDEX_LOCATION, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<EntityDefinition> fromIndex(List<String> classNames, List<String> basePackages) {
+        MetadataReaderFactory readers = new SimpleMetadataReaderFactory();
+        List<EntityDefinition> found = new ArrayList<>();
+        for (String className : classNames) {
+            if (basePackages.stream().noneMatch(basePackage -> className.startsWith(basePackage + "."))) {
+                continue;
+            }
+            try {
+                AnnotationMetadata metadata = readers.getMetadataReader(className).getAnnotationMetadata();
+                if (metadata.hasAnnotation(ConversationalEntity.class.getName())) {
+                    found.add(definitionOf(metadata));
+                }
+            } catch (IOException e) {
+                // Left over from an incremental compile after the class was deleted.
+                log.debug("Skipping indexed entity {}: {}", className, e.getMessage());
+            }
+        }
+        log.debug("Read {} @ConversationalEntity classes in {} from {}", found.size(), basePackages, INDEX_LOCATION);
+        return List.copyOf(found);
+    }
+
+    private EntityDefinition definitionOf(AnnotationMetadata metadata) {
+        Map<String, Object> entity = metadata.getAnnotationAttributes(ConversationalEntity.class.getName());
+        Map<String, Object> table = metadata.getAnnotationAttributes(JPA_TABLE);
+        String className = metadata.getClassName();
+        return new EntityDefinition(
+                className,
+                className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1),
+                table != null ? (String) table.get("name") : null,
+                (String) entity.get("value"),
+                (String) entity.get("description"),
+                (String[]) entity.get("searchableFields"),
+                (String[]) entity.get("uniqueFields"));
+    }
+
+    record EntityDefinition(String className, String simpleName, String tableName, String synonym,
+                            String description, String[] searchableFields, String[] uniqueFields) {
+    }
+}
@@ -0,0 +1,179 @@
+package com.conversationalai.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Finds blocked keywords and stacked statements in a single pass over the SQL text, without copying or
+ * upper-casing it. Keywords are compiled into a trie that is walked from each word start and each symbol,
+ * so a keyword ending in a letter or digit only matches up to a word boundary ({@code EXEC} does not match
+ * {@code executed_at}), while one ending in {@code _}, {@code $} or a symbol matches as a prefix
+ * ({@code xp_} matches {@code xp_cmdshell}). Keywords may span several words or symbols; any run of
+ * whitespace in the SQL matches a single space in the keyword. Quoted literals and identifiers are skipped.
+ */
+@Slf4j
+final class KeywordScanner {
+
+    static final String STATEMENT_SEPARATOR = ";";
+
+    private static final int SYMBOLS = 128;
+
+    private final List<int[]> transitions = new ArrayList<>();
+    private final List<String> terminals = new ArrayList<>();
+    /** Keywords the ASCII trie cannot hold, checked by a case-insensitive substring search instead. */
+    private final List<String> fallbackKeywords = new ArrayList<>();
+
+    KeywordScanner(Collection<String> keywords) {
+        addNode();
+        for (String keyword : keywords) {
+            add(keyword.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Returns the first blocked keyword, {@link #STATEMENT_SEPARATOR} when a second statement follows a
+     * semicolon, or {@code null} when the text is clean.
+     */
+    String scan(CharSequence sql) {
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(sql, i, c);
+            } else if (c == ';') {
+                i++;
+                while (i < length && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == ';')) {
+                    i++;
+                }
+                if (i < length) {
+                    return STATEMENT_SEPARATOR;
+                }
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                String keyword = match(sql, i);
+                if (keyword != null) {
+                    return keyword;
+                }
+                if (isWordChar(c)) {
+                    while (i < length && isWordChar(sql.charAt(i))) {
+                        i++;
+                    }
+                } else {
+                    i++;
+                }
+            }
+        }
+        return fallbackKeywords.isEmpty() ? null : fallbackMatch(sql);
+    }
+
+    /** Walks the trie from {@code start} and returns the first keyword that ends on an allowed boundary. */
+    private String match(CharSequence sql, int start) {
+        int length = sql.length();
+        int node = 0;
+        int i = start;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                return null;
+            }
+            int symbol;
+            if (Character.isWhitespace(c)) {
+                symbol = ' ';
+                while (i + 1 < length && Character.isWhitespace(sql.charAt(i + 1))) {
+                    i++;
+                }
+            } else {
+                symbol = symbol(c);
+            }
+            node = symbol < 0 ? -1 : transitions.get(node)[symbol];
+            if (node < 0) {
+                return null;
+            }
+            i++;
+
+            String keyword = terminals.get(node);
+            if (keyword != null && (!Character.isLetterOrDigit(c) || i == length || !isWordChar(sql.charAt(i)))) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private String fallbackMatch(CharSequence sql) {
+        String upper = sql.toString().toUpperCase(Locale.ROOT);
+        for (String keyword : fallbackKeywords) {
+            if (upper.contains(keyword)) {
+                return keyword;
+            }
+        }
+        return null;
+    }
+
+    private void add(String keyword) {
+        if (keyword.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (symbol(keyword.charAt(i)) < 0) {
+                log.warn("Blocked keyword '{}' is not plain ASCII; it is checked by substring search instead", keyword);
+                fallbackKeywords.add(keyword);
+                return;
+            }
+        }
+
+        int node = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            int symbol = symbol(keyword.charAt(i));
+            int next = transitions.get(node)[symbol];
+            if (next < 0) {
+                next = addNode();
+                transitions.get(node)[symbol] = next;
+            }
+            node = next;
+        }
+        terminals.set(node, keyword);
+    }
+
+    private int addNode() {
+        int[] next = new int[SYMBOLS];
+        Arrays.fill(next, -1);
+        transitions.add(next);
+        terminals.add(null);
+        return transitions.size() - 1;
+    }
+
+    private static int skipQuoted(CharSequence sql, int open, char quote) {
+        int i = open + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /** Upper-cased ASCII code of {@code c}, or -1 outside ASCII. */
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 'A';
+        }
+        return c < SYMBOLS ? c : -1;
+    }
+}
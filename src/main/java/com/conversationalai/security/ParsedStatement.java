@@ -0,0 +1,76 @@
+package com.conversationalai.security;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed form of one SQL statement. Subqueries are parsed into {@link #getSubqueries() child statements},
+ * so the whole tree can be validated without looking at the SQL text again.
+ */
+@Getter
+@Builder
+public class ParsedStatement {
+
+    public enum StatementType { SELECT, INSERT, UPDATE, DELETE, OTHER }
+
+    public enum Clause { SELECT_LIST, FROM, JOIN_CONDITION, WHERE, SET, INSERT_COLUMNS, VALUES, TRAILER }
+
+    private final StatementType type;
+    private final String parseError;
+
+    /** Table written by INSERT, UPDATE or DELETE. */
+    private final String targetTable;
+    private final Set<String> tables;
+    /** Lower-cased alias to table name; derived tables map to {@code null}. */
+    private final Map<String, String> tableAliases;
+    private final Set<String> outputAliases;
+    /** Top-level items of a SELECT list, in order; empty for other statements. */
+    private final List<SelectItem> selectItems;
+    private final List<ColumnReference> columns;
+    private final List<ParsedStatement> subqueries;
+    /** Unquoted words in upper case, keywords and identifiers alike. */
+    private final Set<String> words;
+
+    private final boolean multipleStatements;
+    private final boolean hasComments;
+    private final boolean selectInto;
+    private final boolean hasDerivedTables;
+
+    private final boolean hasWhere;
+    private final boolean whereReferencesColumn;
+    /** Text of the top-level WHERE condition, without the keyword. */
+    private final String whereClause;
+    /** Character range of the WHERE condition in the SQL text, or -1 without WHERE. */
+    private final int whereStart;
+    private final int whereEnd;
+    /** Number of {@code ?} placeholders that precede the WHERE condition. */
+    private final int whereParameterOffset;
+    private final int whereParameterCount;
+    private final int parameterCount;
+
+    public boolean isValid() {
+        return parseError == null;
+    }
+
+    public boolean isMutation() {
+        return type == StatementType.UPDATE || type == StatementType.DELETE;
+    }
+
+    public record ColumnReference(String qualifier, String name, Clause clause) {
+    }
+
+    /**
+     * One SELECT list item. {@code column} is the column name for a plain column reference, {@code "*"}
+     * for {@code *} or {@code t.*}, and {@code null} for any other expression.
+     */
+    public record SelectItem(String qualifier, String column, String alias) {
+
+        public boolean isStar() {
+            return "*".equals(column);
+        }
+    }
+}
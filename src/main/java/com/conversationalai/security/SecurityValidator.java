@@ -1,74 +1,303 @@
 package com.conversationalai.security;
 
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
 import org.springframework.stereotype.Component;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
+/**
+ * Validates generated SQL on its parsed form: a single statement of the type the intent implies,
+ * a WHERE condition on every UPDATE and DELETE, and only tables and columns that exist in the schema.
+ * Blocked keywords are found by a single-pass scan before parsing, and parsed statements are cached
+ * by SQL text, so a repeated plan is not parsed again.
+ */
 @Slf4j
 @Component
 public class SecurityValidator {
 
-    private final List<Pattern> dangerousPatterns;
-    private final List<String> blockedKeywords;
-
-    public SecurityValidator() {
-        this.dangerousPatterns = Arrays.asList(
-                Pattern.compile("(?i)\\bDROP\\s+TABLE\\b"),
-                Pattern.compile("(?i)\\bTRUNCATE\\b"),
-                Pattern.compile("(?i)\\bDELETE\\s+FROM\\s+\\w+\\s*(?!WHERE)"),
-                Pattern.compile("(?i)\\bUPDATE\\s+\\w+\\s+SET\\s+.*(?!WHERE)"),
-                Pattern.compile("(?i)\\bALTER\\s+TABLE\\b"),
-                Pattern.compile("(?i)\\bGRANT\\b"),
-                Pattern.compile("(?i)\\bREVOKE\\b"),
-                Pattern.compile("(?i);\\s*DROP\\b"),
-                Pattern.compile("(?i);\\s*DELETE\\b"),
-                Pattern.compile("(?i)\\bEXEC\\b"),
-                Pattern.compile("(?i)\\bEXECUTE\\b")
-        );
-
-        this.blockedKeywords = Arrays.asList(
-                "DROP", "TRUNCATE", "ALTER", "GRANT", "REVOKE", "EXEC", "EXECUTE"
-        );
+    private static final Map<String, ParsedStatement.StatementType> INTENT_STATEMENTS = Map.of(
+            "READ", ParsedStatement.StatementType.SELECT,
+            "LIST", ParsedStatement.StatementType.SELECT,
+            "COUNT", ParsedStatement.StatementType.SELECT,
+            "CREATE", ParsedStatement.StatementType.INSERT,
+            "UPDATE", ParsedStatement.StatementType.UPDATE,
+            "DELETE", ParsedStatement.StatementType.DELETE);
+
+    private final ConversationalAIProperties.SecurityConfig config;
+    private final Set<String> allowedOperations;
+    private final KeywordScanner keywordScanner;
+    private final Map<String, ParsedStatement> parsedStatements;
+    private final AtomicReference<SchemaIndex> schemaIndex = new AtomicReference<>();
+
+    public SecurityValidator(ConversationalAIProperties properties) {
+        this.config = properties.getSecurity();
+        this.allowedOperations = Arrays.stream(config.getAllowedOperations())
+                .map(operation -> operation.toUpperCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+
+        this.keywordScanner = new KeywordScanner(Arrays.asList(config.getBlockedKeywords()));
+
+        this.parsedStatements = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedStatement> eldest) {
+                return size() > config.getParseCacheSize();
+            }
+        };
     }
 
     public boolean isQuerySafe(String sql) {
-        if (sql == null || sql.trim().isEmpty()) {
+        String violation = statementViolation(sql);
+        if (violation != null) {
+            log.warn("Blocked SQL ({}): {}", violation, sql);
             return false;
         }
+        return true;
+    }
 
-        for (Pattern pattern : dangerousPatterns) {
-            if (pattern.matcher(sql).find()) {
-                log.warn("Blocked dangerous SQL pattern: {}", sql);
-                return false;
-            }
+    /**
+     * Full check of a generated plan: the intent is allowed, the SQL is safe and matches the intent,
+     * and, when {@code enforce-schema-allow-list} is on, every table and column exists in {@code schema}.
+     */
+    public boolean isPlanSafe(String intent, String sql, DatabaseSchema schema) {
+        if (!isIntentAllowed(intent)) {
+            log.warn("Blocked plan with disallowed intent: {}", intent);
+            return false;
         }
 
-        String upperSQL = sql.toUpperCase();
-        for (String keyword : blockedKeywords) {
-            if (upperSQL.contains(keyword)) {
-                log.warn("Blocked SQL with dangerous keyword: {}", keyword);
-                return false;
+        String violation = statementViolation(sql);
+        if (violation == null) {
+            ParsedStatement statement = parse(sql);
+            if (statement.getType() != INTENT_STATEMENTS.get(intent.toUpperCase(Locale.ROOT))) {
+                violation = statement.getType() + " statement does not match intent " + intent;
+            } else if (config.isEnforceSchemaAllowList() && schema != null && schema.getTables() != null) {
+                violation = schemaViolation(statement, indexFor(schema), new ArrayList<>());
             }
         }
 
+        if (violation != null) {
+            log.warn("Blocked SQL ({}): {}", violation, sql);
+            return false;
+        }
         return true;
     }
 
+    public ParsedStatement parse(String sql) {
+        synchronized (parsedStatements) {
+            ParsedStatement cached = parsedStatements.get(sql);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ParsedStatement parsed = SqlStatementParser.parse(sql);
+        synchronized (parsedStatements) {
+            parsedStatements.put(sql, parsed);
+        }
+        return parsed;
+    }
+
     public boolean isIntentAllowed(String intent) {
-        List<String> allowedIntents = Arrays.asList("CREATE", "READ", "UPDATE", "DELETE");
-        return allowedIntents.contains(intent.toUpperCase());
+        if (intent == null) {
+            return false;
+        }
+        ParsedStatement.StatementType type = INTENT_STATEMENTS.get(intent.toUpperCase(Locale.ROOT));
+        if (type == null) {
+            return false;
+        }
+        // LIST and COUNT are reads and are governed by the READ operation.
+        String operation = type == ParsedStatement.StatementType.SELECT ? "READ" : intent.toUpperCase(Locale.ROOT);
+        return allowedOperations.contains(operation);
     }
 
-    public boolean isOperationSafe(String operation, int affectedRows) {
+    public boolean isOperationSafe(String operation, long affectedRows) {
 
-        if (affectedRows > 100) {
-            log.warn("Blocked operation affecting too many rows: {}", affectedRows);
+        if (affectedRows > config.getMaxRecordsPerOperation()) {
+            log.warn("Blocked {} affecting too many rows: {}", operation, affectedRows);
             return false;
         }
 
         return true;
     }
+
+    private String statementViolation(String sql) {
+        if (sql == null || sql.trim().isEmpty()) {
+            return "empty statement";
+        }
+
+        // Cheap single pass first, so obviously dangerous SQL is rejected without being parsed.
+        String blocked = keywordScanner.scan(sql);
+        if (blocked != null) {
+            return KeywordScanner.STATEMENT_SEPARATOR.equals(blocked) ? "multiple statements" : "blocked keyword " + blocked;
+        }
+
+        ParsedStatement statement = parse(sql);
+        if (!statement.isValid()) {
+            return "unparseable: " + statement.getParseError();
+        }
+        if (statement.isMultipleStatements()) {
+            return "multiple statements";
+        }
+        if (statement.isHasComments()) {
+            return "comments are not allowed";
+        }
+        if (statement.getType() == ParsedStatement.StatementType.OTHER) {
+            return "unsupported statement type";
+        }
+        if (statement.isMutation() && (!statement.isHasWhere() || !statement.isWhereReferencesColumn())) {
+            return statement.getType() + " without a WHERE condition";
+        }
+        return treeViolation(statement);
+    }
+
+    private String treeViolation(ParsedStatement statement) {
+        if (statement.isSelectInto()) {
+            return "SELECT INTO";
+        }
+        for (ParsedStatement subquery : statement.getSubqueries()) {
+            String violation = treeViolation(subquery);
+            if (violation != null) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    private String schemaViolation(ParsedStatement statement, SchemaIndex schema, List<ParsedStatement> outerScopes) {
+        for (String table : statement.getTables()) {
+            if (!schema.hasTable(table)) {
+                return "unknown table " + table;
+            }
+        }
+
+        for (ParsedStatement.ColumnReference column : statement.getColumns()) {
+            if (column.qualifier() != null) {
+                Resolved resolved = resolveQualifier(column.qualifier(), statement, outerScopes);
+                if (resolved == Resolved.UNKNOWN) {
+                    return "unknown table or alias " + column.qualifier();
+                }
+                if (resolved.table != null && !schema.hasColumn(resolved.table, column.name())) {
+                    return "unknown column " + column.qualifier() + "." + column.name();
+                }
+                continue;
+            }
+
+            if (statement.getOutputAliases().contains(column.name().toLowerCase(Locale.ROOT))
+                    || statement.isHasDerivedTables()
+                    || isColumnInScope(column.name(), statement, outerScopes, schema)) {
+                continue;
+            }
+            return "unknown column " + column.name();
+        }
+
+        outerScopes.add(statement);
+        try {
+            for (ParsedStatement subquery : statement.getSubqueries()) {
+                String violation = schemaViolation(subquery, schema, outerScopes);
+                if (violation != null) {
+                    return violation;
+                }
+            }
+        } finally {
+            outerScopes.remove(outerScopes.size() - 1);
+        }
+        return null;
+    }
+
+    private boolean isColumnInScope(String column, ParsedStatement statement, List<ParsedStatement> outerScopes,
+                                    SchemaIndex schema) {
+        for (String table : statement.getTables()) {
+            if (schema.hasColumn(table, column)) {
+                return true;
+            }
+        }
+        for (int i = outerScopes.size() - 1; i >= 0; i--) {
+            for (String table : outerScopes.get(i).getTables()) {
+                if (schema.hasColumn(table, column)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Resolved resolveQualifier(String qualifier, ParsedStatement statement, List<ParsedStatement> outerScopes) {
+        Resolved resolved = resolveIn(qualifier, statement);
+        for (int i = outerScopes.size() - 1; resolved == Resolved.UNKNOWN && i >= 0; i--) {
+            resolved = resolveIn(qualifier, outerScopes.get(i));
+        }
+        return resolved;
+    }
+
+    private Resolved resolveIn(String qualifier, ParsedStatement statement) {
+        String key = qualifier.toLowerCase(Locale.ROOT);
+        if (statement.getTableAliases().containsKey(key)) {
+            String table = statement.getTableAliases().get(key);
+            // Columns of derived tables are not known up front.
+            return table != null ? new Resolved(table) : Resolved.DERIVED;
+        }
+        for (String table : statement.getTables()) {
+            if (table.equalsIgnoreCase(qualifier)) {
+                return new Resolved(table);
+            }
+        }
+        return Resolved.UNKNOWN;
+    }
+
+    private SchemaIndex indexFor(DatabaseSchema schema) {
+        SchemaIndex current = schemaIndex.get();
+        if (current != null && current.schema == schema) {
+            return current;
+        }
+        SchemaIndex built = new SchemaIndex(schema);
+        schemaIndex.set(built);
+        return built;
+    }
+
+    private static final class Resolved {
+        private static final Resolved UNKNOWN = new Resolved(null);
+        private static final Resolved DERIVED = new Resolved(null);
+
+        private final String table;
+
+        private Resolved(String table) {
+            this.table = table;
+        }
+    }
+
+    private static final class SchemaIndex {
+        private final DatabaseSchema schema;
+        private final Map<String, Set<String>> columnsByTable = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private SchemaIndex(DatabaseSchema schema) {
+            this.schema = schema;
+            schema.getTables().forEach((table, info) -> {
+                Set<String> columns = new HashSet<>();
+                if (info.getColumns() != null) {
+                    info.getColumns().keySet().forEach(column -> columns.add(column.toLowerCase(Locale.ROOT)));
+                }
+                columnsByTable.put(table, columns);
+            });
+        }
+
+        boolean hasTable(String table) {
+            return columnsByTable.containsKey(table);
+        }
+
+        boolean hasColumn(String table, String column) {
+            Set<String> columns = columnsByTable.get(table);
+            return columns != null && columns.contains(column.toLowerCase(Locale.ROOT));
+        }
+    }
 }
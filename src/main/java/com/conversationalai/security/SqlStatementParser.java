@@ -0,0 +1,671 @@
+package com.conversationalai.security;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Small hand-written parser for the SQL subset the LLM is asked to produce: single SELECT, INSERT,
+ * UPDATE and DELETE statements with joins, subqueries and {@code ?} placeholders. It tokenizes the text
+ * once, so literals, quoted identifiers and comments can never be mistaken for keywords, and records
+ * clause-level structure rather than a full expression tree.
+ */
+final class SqlStatementParser {
+
+    private static final Set<String> KEYWORDS = Set.of(
+            "SELECT", "FROM", "WHERE", "AND", "OR", "NOT", "NULL", "IS", "IN", "LIKE", "ILIKE", "BETWEEN", "AS",
+            "ON", "USING", "JOIN", "INNER", "LEFT", "RIGHT", "OUTER", "FULL", "CROSS", "NATURAL", "GROUP", "BY",
+            "ORDER", "ASC", "DESC", "NULLS", "LIMIT", "OFFSET", "FETCH", "HAVING", "DISTINCT", "ALL", "UNION",
+            "INTERSECT", "EXCEPT", "INSERT", "INTO", "VALUES", "UPDATE", "SET", "DELETE", "CASE", "WHEN", "THEN",
+            "ELSE", "END", "TRUE", "FALSE", "EXISTS", "ANY", "SOME", "ESCAPE", "INTERVAL", "CURRENT_DATE",
+            "CURRENT_TIME", "CURRENT_TIMESTAMP", "LOCALTIME", "LOCALTIMESTAMP", "COLLATE", "WITH", "RETURNING");
+
+    /** Words that are also common column names; they are keywords only where the grammar puts them. */
+    private static final Set<String> CONTEXTUAL_KEYWORDS = Set.of(
+            "FIRST", "LAST", "NEXT", "ROW", "ROWS", "ONLY", "TIES", "PERCENT", "TOP", "DEFAULT", "TO",
+            "YEAR", "MONTH", "DAY", "HOUR", "MINUTE", "SECOND");
+
+    /** Reserved words that end a SELECT list. */
+    private static final Set<String> SELECT_LIST_END = Set.of(
+            "FROM", "INTO", "WHERE", "GROUP", "HAVING", "ORDER", "LIMIT", "OFFSET", "FETCH", "UNION", "INTERSECT",
+            "EXCEPT");
+
+    private static final Set<String> DATE_PARTS = Set.of("YEAR", "MONTH", "DAY", "HOUR", "MINUTE", "SECOND");
+
+    /** Type names that start a typed literal when followed by a string: {@code DATE '2024-01-01'}. */
+    private static final Set<String> TYPED_LITERALS = Set.of("DATE", "TIME", "TIMESTAMP", "INTERVAL");
+
+    private SqlStatementParser() {
+    }
+
+    static ParsedStatement parse(String sql) {
+        List<Token> tokens;
+        try {
+            tokens = tokenize(sql);
+        } catch (IllegalArgumentException e) {
+            return invalid(e.getMessage());
+        }
+
+        boolean hasComments = tokens.removeIf(token -> token.kind == Kind.COMMENT);
+
+        int end = tokens.size();
+        boolean multipleStatements = false;
+        int depth = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.is("(")) {
+                depth++;
+            } else if (token.is(")")) {
+                depth--;
+            } else if (token.is(";") && depth == 0) {
+                end = Math.min(end, i);
+                for (int j = i + 1; j < tokens.size(); j++) {
+                    multipleStatements |= !tokens.get(j).is(";");
+                }
+                break;
+            }
+        }
+
+        if (end == 0) {
+            return invalid("Empty statement");
+        }
+        return new StatementReader(sql, tokens, 0, end).read(multipleStatements, hasComments);
+    }
+
+    private static ParsedStatement invalid(String parseError) {
+        return ParsedStatement.builder()
+                .type(ParsedStatement.StatementType.OTHER)
+                .parseError(parseError)
+                .tables(Set.of())
+                .tableAliases(Map.of())
+                .outputAliases(Set.of())
+                .selectItems(List.of())
+                .columns(List.of())
+                .subqueries(List.of())
+                .words(Set.of())
+                .build();
+    }
+
+    private static final class StatementReader {
+        private final String sql;
+        private final List<Token> tokens;
+        private final int from;
+        private final int to;
+
+        private final Set<String> tables = new LinkedHashSet<>();
+        private final Map<String, String> tableAliases = new HashMap<>();
+        private final Set<String> outputAliases = new LinkedHashSet<>();
+        private final List<ParsedStatement.ColumnReference> columns = new ArrayList<>();
+        private final List<ParsedStatement> subqueries = new ArrayList<>();
+        private final Set<String> words = new LinkedHashSet<>();
+
+        private ParsedStatement.StatementType type;
+        private ParsedStatement.Clause clause;
+        private String targetTable;
+        private boolean expectTable;
+        private boolean expectTarget;
+        private boolean selectInto;
+        private boolean hasDerivedTables;
+        private boolean hasWhere;
+        private boolean whereReferencesColumn;
+        private int whereStart = -1;
+        private int whereEnd = -1;
+        private int whereParameterOffset;
+        private int whereParameterEnd = -1;
+        private int parameterCount;
+
+        private StatementReader(String sql, List<Token> tokens, int from, int to) {
+            this.sql = sql;
+            this.tokens = tokens;
+            this.from = from;
+            this.to = to;
+        }
+
+        ParsedStatement read(boolean multipleStatements, boolean hasComments) {
+            String parseError = null;
+            try {
+                readTokens();
+            } catch (IllegalArgumentException e) {
+                parseError = e.getMessage();
+            }
+
+            String whereClause = null;
+            if (whereStart >= 0) {
+                if (whereEnd < 0) {
+                    whereEnd = tokens.get(to - 1).end;
+                    whereParameterEnd = parameterCount;
+                }
+                whereClause = sql.substring(whereStart, whereEnd).trim();
+            }
+
+            return ParsedStatement.builder()
+                    .type(type)
+                    .parseError(parseError)
+                    .targetTable(targetTable)
+                    .tables(Set.copyOf(tables))
+                    .tableAliases(new HashMap<>(tableAliases))
+                    .outputAliases(Set.copyOf(outputAliases))
+                    .selectItems(parseError == null && type == ParsedStatement.StatementType.SELECT
+                            ? selectItems() : List.of())
+                    .columns(List.copyOf(columns))
+                    .subqueries(List.copyOf(subqueries))
+                    .words(Set.copyOf(words))
+                    .multipleStatements(multipleStatements)
+                    .hasComments(hasComments)
+                    .selectInto(selectInto)
+                    .hasDerivedTables(hasDerivedTables)
+                    .hasWhere(hasWhere)
+                    .whereReferencesColumn(whereReferencesColumn)
+                    .whereClause(whereClause)
+                    .whereStart(whereStart)
+                    .whereEnd(whereEnd)
+                    .whereParameterOffset(whereParameterOffset)
+                    .whereParameterCount(whereStart >= 0 ? whereParameterEnd - whereParameterOffset : 0)
+                    .parameterCount(parameterCount)
+                    .build();
+        }
+
+        private void readTokens() {
+            Token first = tokens.get(from);
+            String statement = first.kind == Kind.WORD ? first.upper() : "";
+            switch (statement) {
+                case "SELECT" -> {
+                    type = ParsedStatement.StatementType.SELECT;
+                    clause = ParsedStatement.Clause.SELECT_LIST;
+                }
+                case "INSERT" -> type = ParsedStatement.StatementType.INSERT;
+                case "UPDATE" -> {
+                    type = ParsedStatement.StatementType.UPDATE;
+                    expectTable = true;
+                    expectTarget = true;
+                }
+                case "DELETE" -> type = ParsedStatement.StatementType.DELETE;
+                default -> type = ParsedStatement.StatementType.OTHER;
+            }
+            collectWord(first);
+            if (type == ParsedStatement.StatementType.OTHER) {
+                for (int i = from + 1; i < to; i++) {
+                    collectWord(tokens.get(i));
+                }
+                return;
+            }
+
+            int depth = 0;
+            int i = from + 1;
+            while (i < to) {
+                Token token = tokens.get(i);
+
+                if (token.is("(")) {
+                    if (i + 1 < to && tokens.get(i + 1).isWord("SELECT")) {
+                        int close = matchingParenthesis(i);
+                        StatementReader child = new StatementReader(sql, tokens, i + 1, close);
+                        ParsedStatement subquery = child.read(false, false);
+                        if (!subquery.isValid()) {
+                            throw new IllegalArgumentException(subquery.getParseError());
+                        }
+                        subqueries.add(subquery);
+                        parameterCount += subquery.getParameterCount();
+                        i = close + 1;
+                        if (expectTable) {
+                            // Derived table: FROM (SELECT ...) alias
+                            expectTable = false;
+                            hasDerivedTables = true;
+                            i = readAlias(i, null);
+                        }
+                        continue;
+                    }
+                    if (depth == 0 && type == ParsedStatement.StatementType.INSERT && targetTable != null
+                            && clause == null) {
+                        clause = ParsedStatement.Clause.INSERT_COLUMNS;
+                    }
+                    depth++;
+                    i++;
+                    continue;
+                }
+                if (token.is(")")) {
+                    depth--;
+                    if (depth < 0) {
+                        throw new IllegalArgumentException("Unbalanced parenthesis at " + token.start);
+                    }
+                    if (depth == 0 && clause == ParsedStatement.Clause.INSERT_COLUMNS) {
+                        clause = null;
+                    }
+                    i++;
+                    // SELECT COUNT(*) total FROM ...: implicit alias after a function call
+                    if (depth == 0 && clause == ParsedStatement.Clause.SELECT_LIST && i < to && isAliasToken(i)) {
+                        outputAliases.add(tokens.get(i).text.toLowerCase(Locale.ROOT));
+                        i++;
+                    }
+                    continue;
+                }
+                if (token.is(",") && depth == 0 && clause == ParsedStatement.Clause.FROM) {
+                    expectTable = true;
+                    i++;
+                    continue;
+                }
+                if (token.kind == Kind.PARAMETER) {
+                    parameterCount++;
+                    i++;
+                    continue;
+                }
+                if (token.kind != Kind.WORD && token.kind != Kind.QUOTED_IDENTIFIER) {
+                    i++;
+                    continue;
+                }
+
+                collectWord(token);
+                if (token.kind == Kind.WORD && TYPED_LITERALS.contains(token.upper())
+                        && i + 1 < to && tokens.get(i + 1).kind == Kind.STRING) {
+                    i += 2;
+                    continue;
+                }
+                if (isKeyword(i)) {
+                    i = keyword(token, i, depth);
+                    continue;
+                }
+                i = identifier(i);
+            }
+
+            if (depth != 0) {
+                throw new IllegalArgumentException("Unbalanced parenthesis");
+            }
+        }
+
+        private int keyword(Token token, int i, int depth) {
+            String keyword = token.upper();
+            if (keyword.equals("AS")) {
+                if (depth > 0) {
+                    // CAST(x AS type): the type may be several words (DOUBLE PRECISION) or have arguments.
+                    return endOfParenthesis(i);
+                }
+                if (clause == ParsedStatement.Clause.SELECT_LIST && i + 1 < to) {
+                    outputAliases.add(tokens.get(i + 1).text.toLowerCase(Locale.ROOT));
+                }
+                return i + 2;
+            }
+            if (depth > 0) {
+                // Keywords inside parentheses, e.g. EXTRACT(YEAR FROM d) or COUNT(DISTINCT x), do not change clause.
+                return i + 1;
+            }
+
+            switch (keyword) {
+                case "FROM" -> {
+                    if (type == ParsedStatement.StatementType.DELETE) {
+                        expectTarget = true;
+                    } else {
+                        clause = ParsedStatement.Clause.FROM;
+                    }
+                    expectTable = true;
+                }
+                case "JOIN" -> {
+                    clause = ParsedStatement.Clause.FROM;
+                    expectTable = true;
+                }
+                case "ON", "USING" -> clause = ParsedStatement.Clause.JOIN_CONDITION;
+                case "INTO" -> {
+                    if (type == ParsedStatement.StatementType.INSERT) {
+                        expectTable = true;
+                        expectTarget = true;
+                    } else {
+                        selectInto = true;
+                    }
+                }
+                case "SET" -> clause = ParsedStatement.Clause.SET;
+                case "VALUES" -> clause = ParsedStatement.Clause.VALUES;
+                case "WHERE" -> {
+                    clause = ParsedStatement.Clause.WHERE;
+                    if (!hasWhere) {
+                        hasWhere = true;
+                        whereParameterOffset = parameterCount;
+                        whereStart = i + 1 < to ? tokens.get(i + 1).start : token.end;
+                    }
+                }
+                case "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "RETURNING" -> {
+                    if (clause == ParsedStatement.Clause.WHERE && whereEnd < 0) {
+                        whereEnd = token.start;
+                        whereParameterEnd = parameterCount;
+                    }
+                    clause = ParsedStatement.Clause.TRAILER;
+                }
+                case "UNION", "INTERSECT", "EXCEPT", "SELECT" -> {
+                    if (type == ParsedStatement.StatementType.INSERT && keyword.equals("SELECT")) {
+                        // INSERT ... SELECT: the rest is a query of its own.
+                        ParsedStatement source = new StatementReader(sql, tokens, i, to).read(false, false);
+                        if (!source.isValid()) {
+                            throw new IllegalArgumentException(source.getParseError());
+                        }
+                        subqueries.add(source);
+                        parameterCount += source.getParameterCount();
+                        return to;
+                    }
+                    if (clause == ParsedStatement.Clause.WHERE && whereEnd < 0) {
+                        whereEnd = token.start;
+                        whereParameterEnd = parameterCount;
+                    }
+                    clause = ParsedStatement.Clause.SELECT_LIST;
+                }
+                default -> {
+                }
+            }
+            return i + 1;
+        }
+
+        private int identifier(int i) {
+            Token token = tokens.get(i);
+            if (i > from && tokens.get(i - 1).is("::")) {
+                // PostgreSQL cast target type
+                return i + 1;
+            }
+            String qualifier = null;
+            String name = token.text;
+            while (i + 2 < to && tokens.get(i + 1).is(".") && isNamePart(tokens.get(i + 2))) {
+                qualifier = name;
+                name = tokens.get(i + 2).text;
+                i += 2;
+            }
+
+            if (expectTable) {
+                expectTable = false;
+                tables.add(name);
+                if (expectTarget) {
+                    expectTarget = false;
+                    targetTable = name;
+                }
+                return readAlias(i + 1, name);
+            }
+
+            if (i + 1 < to && tokens.get(i + 1).is("(") && token.kind == Kind.WORD) {
+                // Function call; its arguments are read as part of the current clause.
+                return i + 1;
+            }
+
+            if (!name.equals("*")) {
+                columns.add(new ParsedStatement.ColumnReference(qualifier, name, clause));
+                if (clause == ParsedStatement.Clause.WHERE) {
+                    whereReferencesColumn = true;
+                }
+            }
+
+            // SELECT name n FROM ...: implicit column alias
+            if (clause == ParsedStatement.Clause.SELECT_LIST && i + 1 < to && isAliasToken(i + 1)) {
+                outputAliases.add(tokens.get(i + 1).text.toLowerCase(Locale.ROOT));
+                return i + 2;
+            }
+            return i + 1;
+        }
+
+        /** Splits the SELECT list at commas outside parentheses. */
+        private List<ParsedStatement.SelectItem> selectItems() {
+            int i = from + 1;
+            while (i < to && (tokens.get(i).isWord("DISTINCT") || tokens.get(i).isWord("ALL"))) {
+                i++;
+            }
+            if (i < to && tokens.get(i).isWord("TOP") && isKeyword(i)) {
+                i = tokens.get(i + 1).is("(") ? matchingParenthesis(i + 1) + 1 : i + 2;
+                if (i < to && tokens.get(i).isWord("PERCENT")) {
+                    i++;
+                }
+                if (i + 1 < to && tokens.get(i).isWord("WITH") && tokens.get(i + 1).isWord("TIES")) {
+                    i += 2;
+                }
+            }
+
+            List<ParsedStatement.SelectItem> items = new ArrayList<>();
+            int depth = 0;
+            int start = i;
+            for (; i < to; i++) {
+                Token token = tokens.get(i);
+                if (token.is("(")) {
+                    depth++;
+                } else if (token.is(")")) {
+                    depth--;
+                } else if (depth == 0 && (token.is(",")
+                        || (token.kind == Kind.WORD && SELECT_LIST_END.contains(token.upper())))) {
+                    items.add(selectItem(start, i));
+                    if (!token.is(",")) {
+                        return List.copyOf(items);
+                    }
+                    start = i + 1;
+                }
+            }
+            items.add(selectItem(start, to));
+            return List.copyOf(items);
+        }
+
+        private ParsedStatement.SelectItem selectItem(int start, int end) {
+            String alias = null;
+            if (end - start >= 3 && tokens.get(end - 2).isWord("AS")) {
+                alias = tokens.get(end - 1).text;
+                end -= 2;
+            } else if (end - start >= 2 && isAliasToken(end - 1) && endsExpression(end - 2)) {
+                alias = tokens.get(end - 1).text;
+                end--;
+            }
+
+            // name, qualifier.name, schema.table.name or qualifier.*
+            if ((end - start) % 2 == 1) {
+                boolean plain = true;
+                for (int i = start; i < end && plain; i++) {
+                    Token token = tokens.get(i);
+                    plain = (i - start) % 2 == 1
+                            ? token.is(".")
+                            : token.is("*") ? i == end - 1 : isNamePart(token) && !isKeyword(i);
+                }
+                if (plain) {
+                    String qualifier = end - start >= 3 ? tokens.get(end - 3).text : null;
+                    return new ParsedStatement.SelectItem(qualifier, tokens.get(end - 1).text, alias);
+                }
+            }
+            return new ParsedStatement.SelectItem(null, null, alias);
+        }
+
+        private boolean endsExpression(int i) {
+            Token token = tokens.get(i);
+            return token.is(")") || token.kind == Kind.QUOTED_IDENTIFIER || token.kind == Kind.NUMBER
+                    || token.kind == Kind.STRING || token.kind == Kind.PARAMETER
+                    || (token.kind == Kind.WORD && !isKeyword(i));
+        }
+
+        private int readAlias(int i, String table) {
+            if (i < to && tokens.get(i).isWord("AS")) {
+                i++;
+            }
+            if (i < to && isAliasToken(i)) {
+                tableAliases.put(tokens.get(i).text.toLowerCase(Locale.ROOT), table);
+                return i + 1;
+            }
+            return i;
+        }
+
+        private boolean isAliasToken(int i) {
+            Token token = tokens.get(i);
+            return token.kind == Kind.QUOTED_IDENTIFIER || (token.kind == Kind.WORD && !isKeyword(i));
+        }
+
+        /**
+         * Reserved words are always keywords. Contextual ones only count as keywords next to the tokens
+         * that give them that role, so a column called {@code year} or {@code first} stays a column.
+         */
+        private boolean isKeyword(int i) {
+            Token token = tokens.get(i);
+            if (token.kind != Kind.WORD) {
+                return false;
+            }
+            String word = token.upper();
+            if (KEYWORDS.contains(word)) {
+                return true;
+            }
+            if (!CONTEXTUAL_KEYWORDS.contains(word)) {
+                return false;
+            }
+
+            Token previous = i > from ? tokens.get(i - 1) : null;
+            Token next = i + 1 < to ? tokens.get(i + 1) : null;
+            if (previous == null) {
+                return false;
+            }
+            boolean afterCount = previous.kind == Kind.NUMBER || previous.kind == Kind.PARAMETER;
+            return switch (word) {
+                // ORDER BY x NULLS FIRST, FETCH FIRST 10 ROWS ONLY, FETCH NEXT ROW ONLY
+                case "FIRST", "LAST" -> previous.isWord("NULLS") || previous.isWord("FETCH");
+                case "NEXT" -> previous.isWord("FETCH");
+                case "ROW", "ROWS" -> clause == ParsedStatement.Clause.TRAILER
+                        && (afterCount || previous.isWord("FIRST") || previous.isWord("NEXT"));
+                case "ONLY" -> previous.isWord("ROW") || previous.isWord("ROWS");
+                case "TIES" -> previous.isWord("WITH");
+                // SELECT TOP 10 PERCENT, SELECT TOP (10) PERCENT
+                case "TOP" -> (previous.isWord("SELECT") || previous.isWord("DISTINCT") || previous.isWord("ALL"))
+                        && next != null && (next.kind == Kind.NUMBER || next.kind == Kind.PARAMETER || next.is("("));
+                case "PERCENT" -> (afterCount && i - 2 >= from && tokens.get(i - 2).isWord("TOP"))
+                        || (previous.is(")") && i - 4 >= from && tokens.get(i - 4).isWord("TOP"));
+                // VALUES (?, DEFAULT), SET x = DEFAULT, DEFAULT VALUES
+                case "DEFAULT" -> clause == ParsedStatement.Clause.VALUES
+                        || (clause == ParsedStatement.Clause.SET && previous.is("="))
+                        || (next != null && next.isWord("VALUES"));
+                // INTERVAL '1' DAY, INTERVAL 1 DAY, DAY TO SECOND, EXTRACT(YEAR FROM d)
+                case "TO" -> DATE_PARTS.contains(previous.upper()) && previous.kind == Kind.WORD;
+                default -> previous.kind == Kind.STRING || afterCount || previous.isWord("TO")
+                        || (previous.is("(") && i - 2 >= from && tokens.get(i - 2).isWord("EXTRACT"));
+            };
+        }
+
+        /** Index of the {@code )} closing the parenthesis that encloses token {@code i}. */
+        private int endOfParenthesis(int i) {
+            int depth = 0;
+            for (int j = i + 1; j < to; j++) {
+                if (tokens.get(j).is("(")) {
+                    depth++;
+                } else if (tokens.get(j).is(")") && depth-- == 0) {
+                    return j;
+                }
+            }
+            throw new IllegalArgumentException("Unbalanced parenthesis at " + tokens.get(i).start);
+        }
+
+        private boolean isNamePart(Token token) {
+            return token.kind == Kind.WORD || token.kind == Kind.QUOTED_IDENTIFIER || token.is("*");
+        }
+
+        private int matchingParenthesis(int open) {
+            int depth = 0;
+            for (int i = open; i < to; i++) {
+                if (tokens.get(i).is("(")) {
+                    depth++;
+                } else if (tokens.get(i).is(")") && --depth == 0) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("Unbalanced parenthesis at " + tokens.get(open).start);
+        }
+
+        private void collectWord(Token token) {
+            if (token.kind == Kind.WORD) {
+                words.add(token.upper());
+            }
+        }
+    }
+
+    static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            int start = i;
+
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+                tokens.add(new Token(Kind.COMMENT, sql.substring(start, i), start, i));
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int close = sql.indexOf("*/", i + 2);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unterminated comment at " + start);
+                }
+                i = close + 2;
+                tokens.add(new Token(Kind.COMMENT, sql.substring(start, i), start, i));
+            } else if (c == '\'') {
+                i = closingQuote(sql, i, '\'');
+                tokens.add(new Token(Kind.STRING, sql.substring(start + 1, i - 1), start, i));
+            } else if (c == '"' || c == '`' || c == '[') {
+                i = closingQuote(sql, i, c == '[' ? ']' : c);
+                tokens.add(new Token(Kind.QUOTED_IDENTIFIER, sql.substring(start + 1, i - 1), start, i));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < length && Character.isDigit(sql.charAt(i + 1)))) {
+                i++;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.NUMBER, sql.substring(start, i), start, i));
+            } else if (Character.isLetter(c) || c == '_') {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.WORD, sql.substring(start, i), start, i));
+            } else if (c == '?') {
+                i++;
+                tokens.add(new Token(Kind.PARAMETER, "?", start, i));
+            } else if (c == ':' && i + 1 < length && Character.isLetter(sql.charAt(i + 1))) {
+                i++;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.PARAMETER, sql.substring(start, i), start, i));
+            } else {
+                i++;
+                if (i < length && isTwoCharOperator(c, sql.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.SYMBOL, sql.substring(start, i), start, i));
+            }
+        }
+        return tokens;
+    }
+
+    private static int closingQuote(String sql, int open, char quote) {
+        int i = open + 1;
+        while (i < sql.length()) {
+            if (sql.charAt(i) == quote) {
+                // A doubled quote is an escaped quote inside the literal.
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote && quote != ']') {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        throw new IllegalArgumentException("Unterminated quote at " + open);
+    }
+
+    private static boolean isTwoCharOperator(char first, char second) {
+        return (first == '<' && (second == '=' || second == '>'))
+                || (first == '>' && second == '=')
+                || (first == '!' && second == '=')
+                || (first == '|' && second == '|')
+                || (first == ':' && second == ':');
+    }
+
+    enum Kind { WORD, QUOTED_IDENTIFIER, STRING, NUMBER, PARAMETER, SYMBOL, COMMENT }
+
+    record Token(Kind kind, String text, int start, int end) {
+
+        boolean is(String symbol) {
+            return kind == Kind.SYMBOL && text.equals(symbol);
+        }
+
+        boolean isWord(String word) {
+            return kind == Kind.WORD && text.equalsIgnoreCase(word);
+        }
+
+        String upper() {
+            return text.toUpperCase(Locale.ROOT);
+        }
+    }
+}
@@ -3,11 +3,30 @@ package com.conversationalai.service;
 
 import com.conversationalai.dto.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
 public interface LLMService {
     String generateResponse(String prompt);
 
     ConversationalLLMResponse processConversationalRequest(ConversationalLLMRequest request);
 
+    /**
+     * Same as {@link #processConversationalRequest(ConversationalLLMRequest)}, but implementations that stream
+     * the completion may hand the plan (intent, SQL, parameters) to {@code planListener} as soon as it is
+     * complete, before the rest of the response has been generated. The listener is called at most once.
+     */
+    default ConversationalLLMResponse processConversationalRequest(ConversationalLLMRequest request,
+                                                                   Consumer<ConversationalLLMResponse> planListener) {
+        return processConversationalRequest(request);
+    }
+
+    default CompletableFuture<ConversationalLLMResponse> processConversationalRequestAsync(ConversationalLLMRequest request,
+                                                                                         Executor executor) {
+        return CompletableFuture.supplyAsync(() -> processConversationalRequest(request), executor);
+    }
+
     @Deprecated
     String parseIntent(String userInput, DatabaseSchema schema);
 
@@ -0,0 +1,172 @@
+package com.conversationalai.serviceImpl;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.ConversationalLLMRequest.Priority;
+import com.conversationalai.dto.LLMSchedulerStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admits model calls into a fixed number of slots per model, matching the parallel slots the model
+ * server is configured with (e.g. {@code OLLAMA_NUM_PARALLEL}). Requests in flight together are batched
+ * by the server; anything beyond that waits here instead of queueing opaquely on the server. Waiting
+ * interactive requests are always admitted before background ones. A request that cannot get a slot
+ * before its queue deadline, or that finds the queue full, is rejected.
+ */
+@Slf4j
+class LLMRequestScheduler {
+
+    private final ConversationalAIProperties.LLMConfig config;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    LLMRequestScheduler(ConversationalAIProperties.LLMConfig config) {
+        this.config = config;
+    }
+
+    <T> T submit(String model, Priority priority, Supplier<T> call) {
+        Lane lane = lanes.computeIfAbsent(model, this::newLane);
+        lane.acquire(priority == null ? Priority.INTERACTIVE : priority);
+        try {
+            return call.get();
+        } finally {
+            lane.release();
+        }
+    }
+
+    List<LLMSchedulerStats> getStats() {
+        List<LLMSchedulerStats> stats = new ArrayList<>();
+        lanes.values().forEach(lane -> stats.add(lane.stats()));
+        return stats;
+    }
+
+    private Lane newLane(String model) {
+        int slots = config.getModelParallelSlots().getOrDefault(model, config.getParallelSlots());
+        return new Lane(model, Math.max(1, slots));
+    }
+
+    private final class Lane {
+        private final String model;
+        private final int slots;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<Waiter> interactive = new ArrayDeque<>();
+        private final Deque<Waiter> background = new ArrayDeque<>();
+
+        private int active;
+        private long completed;
+        private long rejected;
+        private long timedOut;
+        private long totalWaitMs;
+        private long maxWaitMs;
+
+        private Lane(String model, int slots) {
+            this.model = model;
+            this.slots = slots;
+        }
+
+        void acquire(Priority priority) {
+            long start = System.nanoTime();
+            lock.lock();
+            try {
+                if (active < slots && interactive.isEmpty() && background.isEmpty()) {
+                    active++;
+                    return;
+                }
+                if (interactive.size() + background.size() >= config.getMaxQueuedRequests()) {
+                    rejected++;
+                    throw new LLMSchedulerRejectedException(model, "queue is full");
+                }
+
+                Waiter waiter = new Waiter(lock.newCondition());
+                Deque<Waiter> queue = priority == Priority.BACKGROUND ? background : interactive;
+                queue.addLast(waiter);
+                long remaining = TimeUnit.MILLISECONDS.toNanos(config.getQueueTimeout());
+                try {
+                    while (!waiter.admitted) {
+                        if (remaining <= 0) {
+                            queue.remove(waiter);
+                            timedOut++;
+                            throw new LLMSchedulerRejectedException(model,
+                                    "no slot within " + config.getQueueTimeout() + " ms");
+                        }
+                        remaining = waiter.ready.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.admitted) {
+                        releaseLocked();
+                    } else {
+                        queue.remove(waiter);
+                    }
+                    throw new LLMSchedulerRejectedException(model, "interrupted while queued");
+                }
+
+                long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                totalWaitMs += waitedMs;
+                maxWaitMs = Math.max(maxWaitMs, waitedMs);
+                log.debug("Admitted {} request to {} after {} ms", priority, model, waitedMs);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void release() {
+            lock.lock();
+            try {
+                completed++;
+                releaseLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Hands the freed slot straight to the next waiter so a newcomer cannot take it first. */
+        private void releaseLocked() {
+            Waiter next = interactive.isEmpty() ? background.pollFirst() : interactive.pollFirst();
+            if (next == null) {
+                active--;
+                return;
+            }
+            next.admitted = true;
+            next.ready.signal();
+        }
+
+        LLMSchedulerStats stats() {
+            lock.lock();
+            try {
+                return LLMSchedulerStats.builder()
+                        .model(model)
+                        .slots(slots)
+                        .active(active)
+                        .interactiveQueued(interactive.size())
+                        .backgroundQueued(background.size())
+                        .completed(completed)
+                        .rejected(rejected)
+                        .timedOut(timedOut)
+                        .totalWaitMs(totalWaitMs)
+                        .maxWaitMs(maxWaitMs)
+                        .build();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final Condition ready;
+        private boolean admitted;
+
+        private Waiter(Condition ready) {
+            this.ready = ready;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.conversationalai.serviceImpl;
+
+public class LLMSchedulerRejectedException extends RuntimeException {
+
+    private final String model;
+
+    public LLMSchedulerRejectedException(String model, String reason) {
+        super("Model " + model + " is saturated: " + reason);
+        this.model = model;
+    }
+
+    public String getModel() {
+        return model;
+    }
+}
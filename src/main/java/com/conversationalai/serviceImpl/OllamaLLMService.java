@@ -4,47 +4,139 @@ import com.conversationalai.config.ConversationalAIProperties;
 import com.conversationalai.dto.*;
 import com.conversationalai.service.LLMService;
 import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.function.Consumer;
 @Slf4j
 @Service
 public class OllamaLLMService implements LLMService {
 
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
     private final ConversationalAIProperties.LLMConfig config;
+    private final PromptPrefixCache promptPrefixCache = new PromptPrefixCache();
+    private final LLMRequestScheduler scheduler;
 
     public OllamaLLMService(ConversationalAIProperties properties) {
         this.config = properties.getLlm();
-        this.restTemplate = createOptimizedRestTemplate();
+        this.connectionManager = createConnectionManager();
+        this.httpClient = createHttpClient(connectionManager);
+        this.restTemplate = createOptimizedRestTemplate(httpClient);
         this.objectMapper = new ObjectMapper();
+        this.scheduler = new LLMRequestScheduler(config);
     }
 
-    private RestTemplate createOptimizedRestTemplate() {
-        RestTemplate template = new RestTemplate();
+    private PoolingHttpClientConnectionManager createConnectionManager() {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxConnections())
+                .setMaxConnPerRoute(config.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(config.getTimeout()))
+                        .build())
+                .build();
+    }
+
+    private CloseableHttpClient createHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(config.getTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleConnectionTimeout()))
+                .build();
+    }
+
+    private RestTemplate createOptimizedRestTemplate(CloseableHttpClient httpClient) {
+        RestTemplate template = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
 
         template.getMessageConverters().add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
         return template;
     }
 
+    public ConnectionPoolStats getConnectionPoolStats() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return ConnectionPoolStats.builder()
+                .leased(stats.getLeased())
+                .pending(stats.getPending())
+                .available(stats.getAvailable())
+                .max(stats.getMax())
+                .build();
+    }
+
+    public PromptCacheStats getPromptCacheStats() {
+        return promptPrefixCache.getStats();
+    }
+
+    public List<LLMSchedulerStats> getSchedulerStats() {
+        return scheduler.getStats();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
     @Override
     public ConversationalLLMResponse processConversationalRequest(ConversationalLLMRequest request) {
+        return processConversationalRequest(request, plan -> { });
+    }
+
+    @Override
+    public ConversationalLLMResponse processConversationalRequest(ConversationalLLMRequest request,
+                                                                  Consumer<ConversationalLLMResponse> planListener) {
         try {
-            String prompt = buildComprehensivePrompt(request);
-            String rawResponse = generateResponse(prompt);
-            return parseComprehensiveResponse(rawResponse, request);
+            PromptPrefixCache.PromptPrefix prefix = promptPrefixCache.prefixFor(
+                    request.getSchemaVersion(), request.getSchema(), schema -> buildPromptPrefix(schema, request.getEntities()));
+            String prompt = prefix.text() + buildPromptSuffix(request);
+
+            StreamingPlanParser planParser = config.isStreaming()
+                    ? new StreamingPlanParser(objectMapper.getFactory(), planListener)
+                    : null;
+            GenerateResult result = scheduler.submit(config.getModel(), request.getPriority(),
+                    () -> planParser != null ? generateStreaming(prompt, planParser::accept) : generate(prompt));
+            promptPrefixCache.recordPrefill(prefix, prompt.length(), result.promptEvalCount());
+
+            return parseComprehensiveResponse(result.text(), request);
+        } catch (LLMSchedulerRejectedException e) {
+            log.warn("LLM request rejected: {}", e.getMessage());
+            return ConversationalLLMResponse.builder()
+                    .valid(false)
+                    .errorMessage(e.getMessage())
+                    .humanResponse("⏳ **Busy**\n\nThe assistant is busy right now, please try again in a moment.")
+                    .build();
         } catch (Exception e) {
             log.error("Error in comprehensive LLM processing", e);
             return ConversationalLLMResponse.builder()
@@ -54,26 +146,15 @@ public class OllamaLLMService implements LLMService {
         }
     }
 
-    private String buildComprehensivePrompt(ConversationalLLMRequest request) {
+    /**
+     * Everything that does not depend on the user input. It comes first and is kept byte-identical for a
+     * given schema so the model server can reuse its cached prefill for it.
+     */
+    private String buildPromptPrefix(DatabaseSchema schema, Map<String, EntityInfo> entities) {
         StringBuilder prompt = new StringBuilder();
 
         prompt.append("You are a SQL database assistant. Process this user request and provide a complete response.\n\n");
 
-        prompt.append("AVAILABLE TABLES:\n");
-        request.getSchema().getTables().forEach((tableName, tableInfo) -> {
-            prompt.append("Table: ").append(tableName).append("\n");
-            prompt.append("Columns: ");
-            tableInfo.getColumns().forEach((colName, colInfo) -> {
-                prompt.append(colName).append("(").append(colInfo.getDataType()).append(")");
-                if (!colInfo.isNullable()) prompt.append("[REQUIRED]");
-                if (colInfo.isAutoIncrement()) prompt.append("[AUTO]");
-                prompt.append(" ");
-            });
-            prompt.append("\n\n");
-        });
-
-        prompt.append("USER REQUEST: \"").append(request.getUserInput()).append("\"\n\n");
-
         prompt.append("RESPONSE FORMAT (JSON only, no explanations):\n");
         prompt.append("{\n");
         prompt.append("  \"status\": \"SUCCESS|ERROR|MISSING_INFO\",\n");
@@ -83,6 +164,7 @@ public class OllamaLLMService implements LLMService {
         prompt.append("  \"parameters\": [\"param1\", \"param2\"],\n");
         prompt.append("  \"humanResponse\": \"Friendly response to user\",\n");
         prompt.append("  \"missingFields\": [\"field1\", \"field2\"],\n");
+        prompt.append("  \"providedFields\": {\"column\": \"value already given\"},\n");
         prompt.append("  \"errorMessage\": \"error description if any\"\n");
         prompt.append("}\n\n");
 
@@ -91,7 +173,8 @@ public class OllamaLLMService implements LLMService {
         prompt.append("2. For exact matches use = operator\n");
         prompt.append("3. String parameters in quotes, numbers without quotes\n");
         prompt.append("4. Provide helpful humanResponse for successful operations\n");
-        prompt.append("5. If missing required fields, set status to MISSING_INFO\n\n");
+        prompt.append("5. If missing required fields, set status to MISSING_INFO and list the values already given in providedFields\n");
+        prompt.append("6. Use the CONVERSATION CONTEXT, when present, to resolve follow-ups such as \"only the active ones\"\n\n");
 
         prompt.append("EXAMPLES:\n");
         prompt.append("User: \"find users like john\"\n");
@@ -110,14 +193,54 @@ public class OllamaLLMService implements LLMService {
         prompt.append("  \"intent\": \"CREATE\",\n");
         prompt.append("  \"tableName\": \"users\",\n");
         prompt.append("  \"missingFields\": [\"email\"],\n");
+        prompt.append("  \"providedFields\": {\"name\": \"Alice\"},\n");
         prompt.append("  \"humanResponse\": \"I need more information to create a user.\"\n");
         prompt.append("}\n\n");
 
-        prompt.append("Now process the user request:");
+        prompt.append("AVAILABLE TABLES:\n");
+        schema.getTables().forEach((tableName, tableInfo) -> {
+            prompt.append("Table: ").append(tableName).append("\n");
+            prompt.append("Columns: ");
+            tableInfo.getColumns().forEach((colName, colInfo) -> {
+                prompt.append(colName).append("(").append(colInfo.getDataType()).append(")");
+                if (!colInfo.isNullable()) prompt.append("[REQUIRED]");
+                if (colInfo.isAutoIncrement()) prompt.append("[AUTO]");
+                prompt.append(" ");
+            });
+            prompt.append("\n");
+            EntityInfo entity = entities != null ? entities.get(tableName) : null;
+            if (entity != null) {
+                appendEntity(prompt, entity);
+            }
+            prompt.append("\n");
+        });
 
         return prompt.toString();
     }
 
+    private void appendEntity(StringBuilder prompt, EntityInfo entity) {
+        if (entity.getDescription() != null) {
+            prompt.append("Description: ").append(entity.getDescription()).append("\n");
+        }
+        if (!entity.getSynonyms().isEmpty()) {
+            prompt.append("Also called: ").append(String.join(", ", entity.getSynonyms())).append("\n");
+        }
+        if (!entity.getSearchableFields().isEmpty()) {
+            prompt.append("Search with LIKE on: ").append(String.join(", ", entity.getSearchableFields())).append("\n");
+        }
+        if (!entity.getUniqueFields().isEmpty()) {
+            prompt.append("Target UPDATE/DELETE by: ").append(String.join(", ", entity.getUniqueFields())).append("\n");
+        }
+    }
+
+    private String buildPromptSuffix(ConversationalLLMRequest request) {
+        String context = request.getConversationContext() != null
+                ? "CONVERSATION CONTEXT:\n" + request.getConversationContext() + "\n\n"
+                : "";
+        return context + "USER REQUEST: \"" + request.getUserInput() + "\"\n\n" +
+                "Now process the user request:";
+    }
+
     private ConversationalLLMResponse parseComprehensiveResponse(String rawResponse, ConversationalLLMRequest request) {
         try {
 
@@ -143,6 +266,7 @@ public class OllamaLLMService implements LLMService {
                         .intent(jsonNode.get("intent").asText())
                         .tableName(jsonNode.get("tableName").asText())
                         .missingFields(parseJsonStringArray(jsonNode.get("missingFields")))
+                        .providedFields(parseJsonObject(jsonNode.get("providedFields")))
                         .humanResponse(jsonNode.get("humanResponse").asText());
             } else {
                 builder.valid(false)
@@ -192,6 +316,23 @@ public class OllamaLLMService implements LLMService {
         return params.toArray();
     }
 
+    private Map<String, Object> parseJsonObject(JsonNode objectNode) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (objectNode != null && objectNode.isObject()) {
+            objectNode.fields().forEachRemaining(field -> {
+                JsonNode value = field.getValue();
+                if (value.isNumber()) {
+                    values.put(field.getKey(), value.numberValue());
+                } else if (value.isBoolean()) {
+                    values.put(field.getKey(), value.booleanValue());
+                } else if (!value.isNull()) {
+                    values.put(field.getKey(), value.asText());
+                }
+            });
+        }
+        return values;
+    }
+
     private String[] parseJsonStringArray(JsonNode arrayNode) {
         if (arrayNode == null || !arrayNode.isArray()) {
             return new String[0];
@@ -225,18 +366,13 @@ public class OllamaLLMService implements LLMService {
 
     @Override
     public String generateResponse(String prompt) {
+        return scheduler.submit(config.getModel(), ConversationalLLMRequest.Priority.INTERACTIVE,
+                () -> generate(prompt)).text();
+    }
+
+    private GenerateResult generate(String prompt) {
         try {
-            Map<String, Object> request = new HashMap<>();
-            request.put("model", config.getModel());
-            request.put("prompt", prompt);
-            request.put("stream", false);
-            // Optimize for faster response
-            request.put("options", Map.of(
-                    "temperature", 0.1,
-                    "top_k", 10,
-                    "top_p", 0.9,
-                    "num_predict", 500
-            ));
+            Map<String, Object> request = buildGenerateRequest(prompt, false);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -249,13 +385,81 @@ public class OllamaLLMService implements LLMService {
                     Map.class
             );
 
-            return (String) response.get("response");
+            Object promptEvalCount = response.get("prompt_eval_count");
+            return new GenerateResult((String) response.get("response"),
+                    promptEvalCount instanceof Number count ? count.intValue() : 0);
 
         } catch (Exception e) {
             log.error("Error calling LLM service", e);
             throw new RuntimeException("Failed to generate LLM response", e);
         }
     }
+
+    /**
+     * Reads Ollama's NDJSON token stream, handing each fragment to {@code fragmentConsumer} as it arrives.
+     * Returns the full completion once the stream reports done.
+     */
+    private GenerateResult generateStreaming(String prompt, Consumer<String> fragmentConsumer) {
+        try {
+            Map<String, Object> request = buildGenerateRequest(prompt, true);
+            StringBuilder completion = new StringBuilder();
+            int[] promptEvalCount = new int[1];
+
+            restTemplate.execute(
+                    config.getBaseUrl() + "/api/generate",
+                    HttpMethod.POST,
+                    httpRequest -> {
+                        httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                        httpRequest.getBody().write(objectMapper.writeValueAsBytes(request));
+                    },
+                    httpResponse -> {
+                        try (BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(httpResponse.getBody(), StandardCharsets.UTF_8))) {
+                            String line;
+                            while ((line = reader.readLine()) != null) {
+                                if (line.isBlank()) {
+                                    continue;
+                                }
+                                JsonNode chunk = objectMapper.readTree(line);
+                                if (chunk.has("error")) {
+                                    throw new IllegalStateException("LLM stream error: " + chunk.get("error").asText());
+                                }
+                                String fragment = chunk.path("response").asText("");
+                                completion.append(fragment);
+                                fragmentConsumer.accept(fragment);
+                                if (chunk.path("done").asBoolean(false)) {
+                                    promptEvalCount[0] = chunk.path("prompt_eval_count").asInt(0);
+                                    break;
+                                }
+                            }
+                        }
+                        return null;
+                    });
+
+            return new GenerateResult(completion.toString(), promptEvalCount[0]);
+
+        } catch (Exception e) {
+            log.error("Error calling LLM service in streaming mode", e);
+            throw new RuntimeException("Failed to generate LLM response", e);
+        }
+    }
+
+    private Map<String, Object> buildGenerateRequest(String prompt, boolean stream) {
+        Map<String, Object> request = new HashMap<>();
+        request.put("model", config.getModel());
+        request.put("prompt", prompt);
+        request.put("stream", stream);
+        // Keep the model and its prompt cache resident between requests
+        request.put("keep_alive", config.getKeepAlive());
+        // Optimize for faster response
+        request.put("options", Map.of(
+                "temperature", 0.1,
+                "top_k", 10,
+                "top_p", 0.9,
+                "num_predict", 500
+        ));
+        return request;
+    }
     @Override
     public String parseIntent(String userInput, DatabaseSchema schema) {
         String prompt = buildIntentPrompt(userInput, schema);
@@ -462,4 +666,7 @@ public class OllamaLLMService implements LLMService {
 
         return prompt.toString();
     }
+
+    private record GenerateResult(String text, int promptEvalCount) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.conversationalai.serviceImpl;
+
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.PromptCacheStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Renders the static part of the prompt (instructions, rules, examples and schema section) once per
+ * schema version and table selection. Sending a byte-identical prefix lets the model server reuse the
+ * KV cache it already computed for it, so only the user request needs to be prefilled.
+ */
+@Slf4j
+class PromptPrefixCache {
+
+    private static final int MAX_PREFIXES = 64;
+
+    private final Map<String, PromptPrefix> prefixes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PromptPrefix> eldest) {
+            return size() > MAX_PREFIXES;
+        }
+    };
+
+    private final AtomicLong prefixHits = new AtomicLong();
+    private final AtomicLong prefixMisses = new AtomicLong();
+    private final AtomicLong promptTokensEvaluated = new AtomicLong();
+    private final AtomicLong promptTokensSaved = new AtomicLong();
+
+    PromptPrefix prefixFor(long schemaVersion, DatabaseSchema schema, Function<DatabaseSchema, String> renderer) {
+        if (schemaVersion <= 0) {
+            prefixMisses.incrementAndGet();
+            return new PromptPrefix(renderer.apply(schema));
+        }
+
+        String key = schemaVersion + ":" + new TreeSet<>(schema.getTables().keySet());
+        synchronized (prefixes) {
+            PromptPrefix prefix = prefixes.get(key);
+            if (prefix != null) {
+                prefixHits.incrementAndGet();
+                return prefix;
+            }
+            prefixMisses.incrementAndGet();
+            prefix = new PromptPrefix(renderer.apply(schema));
+            prefixes.put(key, prefix);
+            return prefix;
+        }
+    }
+
+    /**
+     * Records how many prompt tokens the server actually evaluated. The first evaluation of a prefix
+     * calibrates its tokens-per-character ratio; later ones count the difference as prefill saved by reuse.
+     */
+    void recordPrefill(PromptPrefix prefix, int promptChars, int promptEvalCount) {
+        if (promptEvalCount <= 0 || promptChars == 0) {
+            return;
+        }
+        promptTokensEvaluated.addAndGet(promptEvalCount);
+
+        if (prefix.tokensPerChar == 0) {
+            prefix.tokensPerChar = (double) promptEvalCount / promptChars;
+            return;
+        }
+
+        long expected = Math.round(promptChars * prefix.tokensPerChar);
+        long saved = Math.max(0, expected - promptEvalCount);
+        promptTokensSaved.addAndGet(saved);
+        log.debug("Prompt prefill: evaluated {} tokens, ~{} reused from cached prefix", promptEvalCount, saved);
+    }
+
+    PromptCacheStats getStats() {
+        return PromptCacheStats.builder()
+                .prefixHits(prefixHits.get())
+                .prefixMisses(prefixMisses.get())
+                .promptTokensEvaluated(promptTokensEvaluated.get())
+                .promptTokensSaved(promptTokensSaved.get())
+                .build();
+    }
+
+    static final class PromptPrefix {
+        private final String text;
+        private volatile double tokensPerChar;
+
+        private PromptPrefix(String text) {
+            this.text = text;
+        }
+
+        String text() {
+            return text;
+        }
+    }
+}
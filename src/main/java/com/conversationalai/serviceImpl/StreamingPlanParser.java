@@ -0,0 +1,155 @@
+package com.conversationalai.serviceImpl;
+
+import com.conversationalai.dto.ConversationalLLMResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incrementally parses the JSON object an LLM is streaming back and publishes the plan
+ * (intent, SQL, parameters) as soon as those fields are complete, while the remaining
+ * fields such as humanResponse are still being generated.
+ * Values are converted the same way as in the non-streaming parser so both paths yield equal plans.
+ */
+@Slf4j
+class StreamingPlanParser {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final Consumer<ConversationalLLMResponse> planListener;
+
+    private final Map<String, Object> fields = new HashMap<>();
+    private String currentField;
+    private List<Object> currentArray;
+    private int depth;
+    private int ignoredDepth;
+
+    private boolean started;
+    private boolean finished;
+    private boolean planPublished;
+
+    StreamingPlanParser(JsonFactory jsonFactory, Consumer<ConversationalLLMResponse> planListener) throws IOException {
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.planListener = planListener;
+    }
+
+    void accept(String fragment) {
+        if (finished || fragment == null || fragment.isEmpty()) {
+            return;
+        }
+
+        if (!started) {
+            int objectStart = fragment.indexOf('{');
+            if (objectStart == -1) {
+                return; // skip markdown fences or chatter before the JSON object
+            }
+            fragment = fragment.substring(objectStart);
+            started = true;
+        }
+
+        try {
+            byte[] bytes = fragment.getBytes(StandardCharsets.UTF_8);
+            feeder.feedInput(bytes, 0, bytes.length);
+
+            JsonToken token;
+            while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                handle(token);
+            }
+        } catch (IOException e) {
+            log.debug("Streaming JSON parse abandoned, falling back to full response parsing: {}", e.getMessage());
+            finished = true;
+        }
+    }
+
+    private void handle(JsonToken token) throws IOException {
+        if (ignoredDepth > 0) {
+            if (token.isStructStart()) ignoredDepth++;
+            if (token.isStructEnd()) ignoredDepth--;
+            return;
+        }
+
+        switch (token) {
+            case START_OBJECT:
+                if (depth == 0) {
+                    depth = 1;
+                } else {
+                    ignoredDepth = 1;
+                }
+                break;
+            case END_OBJECT:
+                finished = true;
+                break;
+            case FIELD_NAME:
+                currentField = parser.currentName();
+                break;
+            case START_ARRAY:
+                if (currentArray == null) {
+                    currentArray = new ArrayList<>();
+                } else {
+                    ignoredDepth = 1;
+                }
+                break;
+            case END_ARRAY:
+                fields.put(currentField, currentArray);
+                currentArray = null;
+                publishPlanIfComplete();
+                break;
+            default:
+                Object value = scalarValue(token);
+                if (currentArray != null) {
+                    currentArray.add(value);
+                } else {
+                    fields.put(currentField, value);
+                    publishPlanIfComplete();
+                }
+        }
+    }
+
+    private Object scalarValue(JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        return parser.getText();
+    }
+
+    private void publishPlanIfComplete() {
+        if (planPublished || !"SUCCESS".equals(fields.get("status"))) {
+            return;
+        }
+        if (!(fields.get("intent") instanceof String intent)
+                || !(fields.get("sql") instanceof String sql)
+                || !(fields.get("parameters") instanceof List<?> parameters)) {
+            return;
+        }
+
+        planPublished = true;
+        ConversationalLLMResponse plan = ConversationalLLMResponse.builder()
+                .valid(true)
+                .needsMoreInfo(false)
+                .intent(intent)
+                .tableName(fields.get("tableName") instanceof String tableName ? tableName : null)
+                .sql(sql)
+                .parameters(parameters.toArray())
+                .build();
+
+        try {
+            planListener.accept(plan);
+        } catch (RuntimeException e) {
+            log.warn("Early plan listener failed", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.conversationalai.session;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact state of one conversation: what the last turn did and what a pending CREATE is still missing.
+ * This, not the transcript, is what follow-up turns send to the model.
+ */
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConversationState {
+    private String sessionId;
+    private String userId;
+
+    private String lastIntent;
+    private String lastTable;
+    private String lastSql;
+    private Object[] lastParameters;
+
+    /** Fields a MISSING_INFO answer asked for, and the values the user has given so far. */
+    private String[] pendingMissingFields;
+    @Builder.Default
+    private Map<String, Object> providedFields = new LinkedHashMap<>();
+
+    /** Recent turns as one-line summaries, oldest first, trimmed to the session token budget. */
+    @Builder.Default
+    private List<String> history = new ArrayList<>();
+
+    private long lastAccessedAt;
+
+    public boolean hasPendingFields() {
+        return pendingMissingFields != null && pendingMissingFields.length > 0;
+    }
+}
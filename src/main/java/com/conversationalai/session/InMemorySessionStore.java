@@ -0,0 +1,122 @@
+package com.conversationalai.session;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used session store. Sessions idle for longer than {@code idle-ttl-ms} expire,
+ * and each session's history is trimmed oldest-first to its token budget when saved. An optional
+ * {@link SessionBackend} is read through on a miss and written through on every save.
+ */
+@Slf4j
+public class InMemorySessionStore implements SessionStore {
+
+    private final ConversationalAIProperties.SessionConfig config;
+    private final SessionBackend backend;
+    private final Map<String, ConversationState> sessions;
+
+    public InMemorySessionStore(ConversationalAIProperties properties, SessionBackend backend) {
+        this.config = properties.getSession();
+        this.backend = backend;
+        this.sessions = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ConversationState> eldest) {
+                return size() > config.getMaxSessions();
+            }
+        };
+    }
+
+    @Override
+    public ConversationState load(String sessionId) {
+        if (!config.isEnabled() || sessionId == null) {
+            return null;
+        }
+
+        ConversationState state;
+        synchronized (sessions) {
+            state = sessions.get(sessionId);
+        }
+        if (state == null && backend != null) {
+            state = backend.load(sessionId);
+            if (state != null && !isExpired(state)) {
+                synchronized (sessions) {
+                    sessions.put(sessionId, copyOf(state));
+                }
+            }
+        }
+        if (state == null) {
+            return null;
+        }
+        if (isExpired(state)) {
+            remove(sessionId);
+            return null;
+        }
+        return copyOf(state);
+    }
+
+    @Override
+    public void save(ConversationState state) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        state.setLastAccessedAt(System.currentTimeMillis());
+        trimToBudget(state);
+
+        synchronized (sessions) {
+            sessions.put(state.getSessionId(), copyOf(state));
+        }
+        if (backend != null) {
+            backend.save(copyOf(state));
+        }
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        synchronized (sessions) {
+            sessions.remove(sessionId);
+        }
+        if (backend != null) {
+            backend.remove(sessionId);
+        }
+    }
+
+    public int size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    private boolean isExpired(ConversationState state) {
+        return System.currentTimeMillis() - state.getLastAccessedAt() > config.getIdleTtlMs();
+    }
+
+    private void trimToBudget(ConversationState state) {
+        List<String> history = state.getHistory();
+        while (history.size() > config.getMaxHistoryTurns()) {
+            history.remove(0);
+        }
+        int tokens = history.stream().mapToInt(InMemorySessionStore::estimateTokens).sum();
+        while (!history.isEmpty() && tokens > config.getTokenBudget()) {
+            tokens -= estimateTokens(history.remove(0));
+        }
+    }
+
+    // Same four-characters-per-token approximation the schema ranker uses.
+    private static int estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+
+    private ConversationState copyOf(ConversationState state) {
+        return state.toBuilder()
+                .lastParameters(state.getLastParameters() != null ? state.getLastParameters().clone() : null)
+                .pendingMissingFields(state.getPendingMissingFields() != null ? state.getPendingMissingFields().clone() : null)
+                .providedFields(new LinkedHashMap<>(state.getProvidedFields()))
+                .history(new ArrayList<>(state.getHistory()))
+                .build();
+    }
+}
@@ -0,0 +1,15 @@
+package com.conversationalai.session;
+
+/**
+ * Durable storage behind {@link InMemorySessionStore}, e.g. a database table or Redis. Define a bean of
+ * this type to keep conversations across restarts and instances; the in-memory store reads through to it
+ * on a miss and writes through on every save.
+ */
+public interface SessionBackend {
+
+    ConversationState load(String sessionId);
+
+    void save(ConversationState state);
+
+    void remove(String sessionId);
+}
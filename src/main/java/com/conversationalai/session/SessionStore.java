@@ -0,0 +1,14 @@
+package com.conversationalai.session;
+
+/**
+ * Holds {@link ConversationState} per session id.
+ */
+public interface SessionStore {
+
+    /** Returns the state of the session, or {@code null} when it is unknown or has expired. */
+    ConversationState load(String sessionId);
+
+    void save(ConversationState state);
+
+    void remove(String sessionId);
+}
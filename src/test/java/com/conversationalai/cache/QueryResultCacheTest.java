@@ -0,0 +1,87 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.QueryResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryResultCacheTest {
+
+    private static final String USERS_SQL = "SELECT * FROM users WHERE id = ?";
+    private static final String ORDERS_SQL = "SELECT * FROM orders";
+
+    private final ConversationalAIProperties properties = new ConversationalAIProperties();
+    private final QueryResultCache cache = new QueryResultCache(properties);
+
+    @Test
+    void cachedResultIsReturnedAsACopy() {
+        cache.put(USERS_SQL, new Object[]{1}, Set.of("users"), result("ann"), cache.beginRead());
+
+        QueryResult cached = cache.get(USERS_SQL, new Object[]{1});
+        assertThat(cached.getValues()).singleElement().satisfies(row -> assertThat(row).containsExactly("ann"));
+        assertThat(cache.get(USERS_SQL, new Object[]{2})).isNull();
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void writeDropsOnlyResultsReadingThatTable() {
+        cache.put(USERS_SQL, new Object[]{1}, Set.of("\"USERS\""), result("ann"), cache.beginRead());
+        cache.put(ORDERS_SQL, null, Set.of("orders"), result("o-1"), cache.beginRead());
+
+        cache.invalidate(List.of("users"));
+
+        assertThat(cache.get(USERS_SQL, new Object[]{1})).isNull();
+        assertThat(cache.get(ORDERS_SQL, null)).isNotNull();
+    }
+
+    @Test
+    void readThatRacedWithAWriteToItsTableIsNotCached() {
+        long readStartedAt = cache.beginRead();
+        cache.invalidate(List.of("users"));
+        cache.put(USERS_SQL, new Object[]{1}, Set.of("users"), result("stale"), readStartedAt);
+
+        assertThat(cache.get(USERS_SQL, new Object[]{1})).isNull();
+    }
+
+    @Test
+    void writeToAnotherTableDoesNotBlockARacingRead() {
+        long readStartedAt = cache.beginRead();
+        cache.invalidate(List.of("orders"));
+        cache.put(USERS_SQL, new Object[]{1}, Set.of("users"), result("ann"), readStartedAt);
+
+        assertThat(cache.get(USERS_SQL, new Object[]{1})).isNotNull();
+    }
+
+    @Test
+    void writeToUnknownTablesBlocksEveryRacingRead() {
+        long readStartedAt = cache.beginRead();
+        cache.invalidateAll();
+        cache.put(USERS_SQL, new Object[]{1}, Set.of("users"), result("stale"), readStartedAt);
+        cache.put(ORDERS_SQL, null, Set.of("orders"), result("o-1"), cache.beginRead());
+
+        assertThat(cache.get(USERS_SQL, new Object[]{1})).isNull();
+        assertThat(cache.get(ORDERS_SQL, null)).isNotNull();
+    }
+
+    @Test
+    void tablesWithoutTtlAreNeverCached() {
+        properties.getCache().getResultCacheTableTtlMs().put("Audit_Log", 0L);
+        QueryResultCache configured = new QueryResultCache(properties);
+
+        configured.put("SELECT * FROM users u JOIN audit_log a ON a.user_id = u.id", null,
+                Set.of("users", "audit_log"), result("ann"), configured.beginRead());
+
+        assertThat(configured.getStats().getSize()).isZero();
+    }
+
+    private static QueryResult result(Object value) {
+        List<Object[]> values = new ArrayList<>();
+        values.add(new Object[]{value});
+        return QueryResult.builder().columns(new String[]{"name"}).values(values).build();
+    }
+}
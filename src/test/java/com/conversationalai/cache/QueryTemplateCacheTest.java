@@ -0,0 +1,80 @@
+package com.conversationalai.cache;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.ConversationalLLMResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryTemplateCacheTest {
+
+    private static final String FINGERPRINT = "schema-1";
+
+    private final QueryTemplateCache cache = new QueryTemplateCache(new ConversationalAIProperties());
+
+    @Test
+    void learnedTemplateIsFilledWithTheNewLiterals() {
+        cache.learn("find users like john", FINGERPRINT, plan("SELECT * FROM users WHERE name LIKE ?",
+                "Users named like john", "%john%"));
+
+        ConversationalLLMResponse response = cache.match("Find users like maria", FINGERPRINT);
+
+        assertThat(response.getSql()).isEqualTo("SELECT * FROM users WHERE name LIKE ?");
+        assertThat(response.getParameters()).containsExactly("%maria%");
+        assertThat(response.getHumanResponse()).isEqualTo("Users named like maria");
+    }
+
+    @Test
+    void numberSlotsKeepTheirParameterType() {
+        cache.learn("orders over 100", FINGERPRINT, plan("SELECT * FROM orders WHERE total > ?", null, 100));
+
+        assertThat(cache.match("orders over 250", FINGERPRINT).getParameters()).containsExactly(250);
+        assertThat(cache.match("orders over many", FINGERPRINT)).isNull();
+    }
+
+    @Test
+    void differentFixedWordsOrLengthsDoNotMatch() {
+        cache.learn("find users like john", FINGERPRINT, plan("SELECT * FROM users WHERE name LIKE ?", null, "%john%"));
+
+        assertThat(cache.match("delete users like maria", FINGERPRINT)).isNull();
+        assertThat(cache.match("find users like maria smith", FINGERPRINT)).isNull();
+        assertThat(cache.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void parametersNotFoundExactlyOnceInTheInputAreNotLearned() {
+        cache.learn("users older than the admin", FINGERPRINT, plan("SELECT * FROM users WHERE age > ?", null, 40));
+        cache.learn("john follows john", FINGERPRINT, plan("SELECT * FROM follows WHERE a = ?", null, "john"));
+
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    void writePlansAreNotLearned() {
+        ConversationalLLMResponse delete = plan("DELETE FROM users WHERE name = ?", null, "john").toBuilder()
+                .intent("DELETE")
+                .build();
+        cache.learn("delete user john", FINGERPRINT, delete);
+
+        assertThat(cache.match("delete user maria", FINGERPRINT)).isNull();
+    }
+
+    @Test
+    void schemaChangeDropsLearnedTemplates() {
+        cache.learn("find users like john", FINGERPRINT, plan("SELECT * FROM users WHERE name LIKE ?", null, "%john%"));
+
+        assertThat(cache.match("find users like maria", "schema-2")).isNull();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    private static ConversationalLLMResponse plan(String sql, String humanResponse, Object... parameters) {
+        return ConversationalLLMResponse.builder()
+                .intent("READ")
+                .tableName("users")
+                .sql(sql)
+                .parameters(parameters)
+                .humanResponse(humanResponse)
+                .valid(true)
+                .build();
+    }
+}
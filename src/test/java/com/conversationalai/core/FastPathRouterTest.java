@@ -0,0 +1,91 @@
+package com.conversationalai.core;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.ConversationalLLMResponse;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.entity.EntityScanner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FastPathRouterTest {
+
+    private final DatabaseSchema schema = DatabaseSchema.builder()
+            .tables(Map.of(
+                    "users", table("users", "id", "INTEGER"),
+                    "orders", table("orders", "id", "BIGINT"),
+                    "customers", table("customers", "code", "VARCHAR")))
+            .build();
+
+    private FastPathRouter router;
+
+    @BeforeEach
+    void setUp() {
+        ConversationalAIProperties properties = new ConversationalAIProperties();
+        properties.getFastPath().getSynonyms().put("clients", "customers");
+        router = new FastPathRouter(properties, new EntityScanner(properties, new DefaultListableBeanFactory()));
+    }
+
+    @Test
+    void countAndListRequestsArePlanned() {
+        ConversationalLLMResponse count = router.route("How many users are there?", schema);
+        assertThat(count.getIntent()).isEqualTo("COUNT");
+        assertThat(count.getSql()).isEqualTo("SELECT COUNT(*) FROM users");
+
+        ConversationalLLMResponse list = router.route("Show me all the orders", schema);
+        assertThat(list.getIntent()).isEqualTo("LIST");
+        assertThat(list.getSql()).isEqualTo("SELECT * FROM orders");
+    }
+
+    @Test
+    void singularNameWithIdReadsByPrimaryKey() {
+        ConversationalLLMResponse read = router.route("show order 42", schema);
+
+        assertThat(read.getIntent()).isEqualTo("READ");
+        assertThat(read.getSql()).isEqualTo("SELECT * FROM orders WHERE id = ?");
+        assertThat(read.getParameters()).containsExactly(42L);
+    }
+
+    @Test
+    void textKeysNeedAQuotedValue() {
+        ConversationalLLMResponse read = router.route("get customer 'C-7'", schema);
+        assertThat(read.getSql()).isEqualTo("SELECT * FROM customers WHERE code = ?");
+        assertThat(read.getParameters()).containsExactly("C-7");
+
+        assertThat(router.route("get customer 7", schema)).isNull();
+    }
+
+    @Test
+    void configuredSynonymsResolveToTheirTable() {
+        assertThat(router.route("count clients", schema).getSql()).isEqualTo("SELECT COUNT(*) FROM customers");
+    }
+
+    @Test
+    void requestsWithExtraConditionsGoToTheModel() {
+        assertThat(router.route("orders from last week", schema)).isNull();
+        assertThat(router.route("list users older than 30", schema)).isNull();
+        assertThat(router.getStats().getUnmatched()).isEqualTo(2);
+    }
+
+    @Test
+    void typoMatchesAreBelowTheDefaultThreshold() {
+        assertThat(router.route("list all orderz", schema)).isNull();
+        assertThat(router.getStats().getLowConfidence()).isEqualTo(1);
+    }
+
+    private static DatabaseSchema.TableInfo table(String name, String key, String keyType) {
+        Map<String, DatabaseSchema.ColumnInfo> columns = new LinkedHashMap<>();
+        columns.put(key, DatabaseSchema.ColumnInfo.builder().columnName(key).dataType(keyType).build());
+        return DatabaseSchema.TableInfo.builder()
+                .tableName(name)
+                .columns(columns)
+                .primaryKeys(List.of(key))
+                .build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.conversationalai.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InputNormalizerTest {
+
+    @Test
+    void whitespaceAndTrailingPunctuationAreDropped() {
+        assertThat(InputNormalizer.normalize("  show   all\tusers ?! ")).isEqualTo("show all users");
+        assertThat(InputNormalizer.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void capitalizedFirstWordIsLowerCased() {
+        assertThat(InputNormalizer.normalize("Show all users")).isEqualTo(InputNormalizer.normalize("show all users"));
+    }
+
+    @Test
+    void wordsThatMayBeValuesKeepTheirCase() {
+        assertThat(InputNormalizer.normalize("find user John")).isEqualTo("find user John");
+        assertThat(InputNormalizer.normalize("Find product SKU-A1")).isEqualTo("find product SKU-A1");
+        assertThat(InputNormalizer.normalize("find user John")).isNotEqualTo(InputNormalizer.normalize("find user john"));
+    }
+
+    @Test
+    void quotedLiteralsAreKeptVerbatim() {
+        assertThat(InputNormalizer.normalize("find notes with 'Hello   World'")).isEqualTo("find notes with 'Hello   World'");
+        assertThat(InputNormalizer.normalize("show john's orders")).isEqualTo("show john's orders");
+    }
+
+    @Test
+    void ignoringCaseFoldsEveryWordOutsideQuotes() {
+        assertThat(InputNormalizer.normalizeIgnoringCase("SHOW All Users named 'Ann'"))
+                .isEqualTo("show all users named 'Ann'");
+    }
+}
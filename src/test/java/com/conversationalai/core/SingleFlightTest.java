@@ -0,0 +1,133 @@
+package com.conversationalai.core;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flights = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> flights.run("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "value";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<SingleFlight.Result<String>> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return flights.run("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            });
+        });
+        awaitParked(followerThread);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>("value", true));
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>("value", false));
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void leaderFailureIsRethrownToFollowers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> flights.run("key", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("boom");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<SingleFlight.Result<String>> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return flights.run("key", () -> "unused");
+        });
+        awaitParked(followerThread);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("boom");
+    }
+
+    @Test
+    void leaderErrorDoesNotStrandFollowers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result<String>> leader = executor.submit(() -> flights.run("key", () -> {
+            started.countDown();
+            await(release);
+            throw new AssertionError("fatal");
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Thread> followerThread = new AtomicReference<>();
+        Future<SingleFlight.Result<String>> follower = executor.submit(() -> {
+            followerThread.set(Thread.currentThread());
+            return flights.run("key", () -> "unused");
+        });
+        awaitParked(followerThread);
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+    }
+
+    @Test
+    void nothingIsKeptAfterTheFlightLands() {
+        assertThat(flights.run("key", () -> "first")).isEqualTo(new SingleFlight.Result<>("first", true));
+        assertThat(flights.run("key", () -> "second")).isEqualTo(new SingleFlight.Result<>("second", true));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Waits until the follower is blocked joining the leader's future. */
+    private static void awaitParked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Thread t = thread.get();
+            if (t != null && t.getState() == Thread.State.WAITING) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("follower never joined the flight");
+    }
+}
@@ -0,0 +1,58 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseSchemaAnalyzerTest {
+
+    private DatabaseSchemaAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:analyzer;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE SCHEMA archive");
+        jdbcTemplate.execute("CREATE TABLE customers (id INT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.execute("CREATE TABLE archive.customers (legacy_id INT PRIMARY KEY, archived_at TIMESTAMP)");
+        for (int i = 0; i < 10; i++) {
+            // Enough tables to take the bulk metadata path.
+            jdbcTemplate.execute("CREATE TABLE orders_" + i + " (id INT PRIMARY KEY, customer_id INT REFERENCES customers(id))");
+            jdbcTemplate.execute("CREATE TABLE archive.orders_" + i + " (order_id INT PRIMARY KEY)");
+        }
+
+        analyzer = new DatabaseSchemaAnalyzer(jdbcTemplate, new ConversationalAIProperties());
+    }
+
+    @Test
+    void sameNamedTablesInOtherSchemasAreNotMerged() {
+        Map<String, DatabaseSchema.TableInfo> tables = analyzer.analyzeSchema().getTables();
+
+        assertThat(tables).hasSize(11);
+        DatabaseSchema.TableInfo customers = tables.get("CUSTOMERS");
+        assertThat(customers.getColumns()).containsOnlyKeys("ID", "NAME");
+        assertThat(customers.getPrimaryKeys()).containsExactly("ID");
+
+        DatabaseSchema.TableInfo orders = tables.get("ORDERS_3");
+        assertThat(orders.getColumns()).containsOnlyKeys("ID", "CUSTOMER_ID");
+        assertThat(orders.getPrimaryKeys()).containsExactly("ID");
+        assertThat(orders.getForeignKeys()).containsOnlyKeys("CUSTOMER_ID");
+    }
+
+    @Test
+    void signaturesMatchTheAnalyzedTables() {
+        Map<String, DatabaseSchema.TableInfo> tables = analyzer.analyzeSchema().getTables();
+
+        Map<String, Long> signatures = analyzer.readTableSignatures();
+        assertThat(signatures).containsOnlyKeys(tables.keySet());
+        tables.forEach((name, table) ->
+                assertThat(signatures.get(name)).isEqualTo(DatabaseSchemaAnalyzer.tableSignature(table)));
+    }
+}
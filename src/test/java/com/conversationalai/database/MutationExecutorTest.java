@@ -0,0 +1,137 @@
+package com.conversationalai.database;
+
+import com.conversationalai.cache.QueryResultCache;
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.security.SecurityValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MutationExecutorTest {
+
+    private static final DatabaseSchema.TableInfo ITEMS = DatabaseSchema.TableInfo.builder()
+            .tableName("items")
+            .primaryKeys(List.of("id"))
+            .build();
+    private static final DatabaseSchema.TableInfo LINE_ITEMS = DatabaseSchema.TableInfo.builder()
+            .tableName("line_items")
+            .primaryKeys(List.of("order_id", "line_no"))
+            .build();
+
+    private final List<String> statements = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private MutationExecutor mutationExecutor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:mutations;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        jdbcTemplate.execute("CREATE TABLE items (id INT PRIMARY KEY, status VARCHAR(10), price DECIMAL(10, 2))");
+        jdbcTemplate.execute("CREATE TABLE line_items (order_id INT, line_no INT, qty INT, PRIMARY KEY (order_id, line_no))");
+        for (int id = 1; id <= 15; id++) {
+            jdbcTemplate.update("INSERT INTO items VALUES (?, ?, ?)", id, id <= 12 ? "old" : "keep", id * 10);
+        }
+        for (int order = 1; order <= 4; order++) {
+            for (int line = 1; line <= 3; line++) {
+                jdbcTemplate.update("INSERT INTO line_items VALUES (?, ?, ?)", order, line, order * line);
+            }
+        }
+
+        ConversationalAIProperties properties = new ConversationalAIProperties();
+        properties.getDatabase().setMutationChunkSize(5);
+        properties.getSecurity().setMaxRecordsPerOperation(13);
+        SecurityValidator securityValidator = new SecurityValidator(properties);
+        QueryExecutor queryExecutor = new QueryExecutor(jdbcTemplate, securityValidator,
+                new QueryResultCache(properties), properties) {
+            @Override
+            public int executeUpdate(String sql, Object[] parameters) {
+                statements.add(sql);
+                return super.executeUpdate(sql, parameters);
+            }
+        };
+        // Every table here has a primary key, so the schema cache and entity index are never consulted.
+        mutationExecutor = new MutationExecutor(jdbcTemplate, queryExecutor, securityValidator, null, null, properties);
+    }
+
+    @Test
+    void singleKeyMutationRunsInKeyChunks() {
+        int affected = mutationExecutor.execute("UPDATE", "UPDATE items SET status = ? WHERE status = ?",
+                new Object[]{"new", "old"}, ITEMS);
+
+        assertThat(affected).isEqualTo(12);
+        assertThat(statements).hasSize(3).allMatch(sql -> sql.contains("AND items.id IN ("));
+        assertThat(statements.get(0)).isEqualTo(
+                "UPDATE items SET status = ? WHERE (status = ?) AND items.id IN (?, ?, ?, ?, ?)");
+        assertThat(countWhere("items", "status = 'new'")).isEqualTo(12);
+        assertThat(countWhere("items", "status = 'keep'")).isEqualTo(3);
+    }
+
+    @Test
+    void compositeKeyMutationMatchesEachKeyRow() {
+        int affected = mutationExecutor.execute("DELETE", "DELETE FROM line_items WHERE qty > ?",
+                new Object[]{1}, LINE_ITEMS);
+
+        assertThat(affected).isEqualTo(11);
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).startsWith("DELETE FROM line_items WHERE (qty > ?) AND ("
+                + "(line_items.order_id = ? AND line_items.line_no = ?) OR ");
+        assertThat(countWhere("line_items", "order_id = 1 AND line_no = 1")).isEqualTo(1);
+        assertThat(countWhere("line_items", "1 = 1")).isEqualTo(1);
+    }
+
+    @Test
+    void aliasedUpdateKeepsSetParametersBeforeTheWhereCondition() {
+        int affected = mutationExecutor.execute("UPDATE",
+                "UPDATE items i SET price = ?, status = ? WHERE i.status = ? AND i.price < ?",
+                new Object[]{9.5, "sale", "old", 115}, ITEMS);
+
+        assertThat(affected).isEqualTo(11);
+        assertThat(statements).hasSize(3).allMatch(sql -> sql.startsWith(
+                "UPDATE items i SET price = ?, status = ? WHERE (i.status = ? AND i.price < ?) AND i.id IN ("));
+        assertThat(countWhere("items", "status = 'sale' AND price = 9.5")).isEqualTo(11);
+        assertThat(countWhere("items", "id = 12 AND status = 'old' AND price = 120")).isEqualTo(1);
+    }
+
+    @Test
+    void mutationWithinOneChunkRunsAsGenerated() {
+        int affected = mutationExecutor.execute("DELETE", "DELETE FROM items WHERE id <= ?", new Object[]{3}, ITEMS);
+
+        assertThat(affected).isEqualTo(3);
+        assertThat(statements).containsExactly("DELETE FROM items WHERE id <= ?");
+    }
+
+    @Test
+    void mutationWithoutWhereIsRefused() {
+        assertThatThrownBy(() -> mutationExecutor.execute("DELETE", "DELETE FROM items", null, ITEMS))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no WHERE condition");
+        assertThatThrownBy(() -> mutationExecutor.execute("UPDATE", "UPDATE items SET status = ?",
+                new Object[]{"x"}, ITEMS))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(statements).isEmpty();
+        assertThat(countWhere("items", "status = 'old'")).isEqualTo(12);
+    }
+
+    @Test
+    void mutationOverTheLimitChangesNothing() {
+        assertThatThrownBy(() -> mutationExecutor.execute("DELETE", "DELETE FROM items WHERE id > ?",
+                new Object[]{0}, ITEMS))
+                .isInstanceOf(MutationLimitExceededException.class);
+
+        assertThat(statements).isEmpty();
+        assertThat(countWhere("items", "1 = 1")).isEqualTo(15);
+    }
+
+    private int countWhere(String table, String condition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + condition, Integer.class);
+    }
+}
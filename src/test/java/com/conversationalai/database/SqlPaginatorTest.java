@@ -0,0 +1,142 @@
+package com.conversationalai.database;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import com.conversationalai.dto.DatabaseSchema;
+import com.conversationalai.dto.QueryResult;
+import com.conversationalai.security.SecurityValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlPaginatorTest {
+
+    private static final DatabaseSchema.TableInfo USERS = DatabaseSchema.TableInfo.builder()
+            .tableName("users")
+            .primaryKeys(List.of("id"))
+            .build();
+
+    private JdbcTemplate jdbcTemplate;
+    private SqlPaginator paginator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:paginator;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS users");
+        jdbcTemplate.execute("CREATE TABLE users (id INT PRIMARY KEY, name VARCHAR(20), active BOOLEAN)");
+        for (int id = 1; id <= 25; id++) {
+            jdbcTemplate.update("INSERT INTO users VALUES (?, ?, ?)", 26 - id, "user" + (id % 4), id % 5 != 0);
+        }
+
+        ConversationalAIProperties properties = new ConversationalAIProperties();
+        properties.getDatabase().setPageSize(10);
+        paginator = new SqlPaginator(jdbcTemplate, new SecurityValidator(properties), properties);
+    }
+
+    @Test
+    void projectedPrimaryKeyIsPagedByKey() {
+        SqlPaginator.PagedQuery page = paginator.firstPage("SELECT * FROM users WHERE active = ?;", new Object[]{true}, USERS);
+
+        assertThat(page.keyColumns()).containsExactly("id");
+        assertThat(page.sql()).isEqualTo(
+                "SELECT * FROM (SELECT * FROM users WHERE active = ?) paged_rows ORDER BY id LIMIT 11");
+
+        SqlPaginator.PagedQuery next = paginator.nextPage(paginator.cursorAfter(page, read(page)));
+        assertThat(next.sql()).isEqualTo("SELECT * FROM (SELECT * FROM users WHERE active = ?) paged_rows"
+                + " WHERE ((id > ?)) ORDER BY id LIMIT 11");
+        assertThat(next.parameters()).containsExactly(true, 13);
+    }
+
+    @Test
+    void keysetPagesCoverEveryRowOnce() {
+        assertThat(allIds(paginator.firstPage("SELECT id, name FROM users", null, USERS)))
+                .containsExactlyElementsOf(range(1, 25));
+    }
+
+    @Test
+    void renamedPrimaryKeyFallsBackToOrderedOffsetPages() {
+        SqlPaginator.PagedQuery page = paginator.firstPage("SELECT u.id AS user_id, u.name FROM users u", null, USERS);
+
+        assertThat(page.keyColumns()).isNull();
+        assertThat(page.sql()).isEqualTo("SELECT u.id AS user_id, u.name FROM users u ORDER BY u.id LIMIT 11");
+        assertThat(allIds(page)).containsExactlyElementsOf(range(1, 25));
+    }
+
+    @Test
+    void primaryKeyInsideAnExpressionIsNotAKey() {
+        SqlPaginator.PagedQuery page = paginator.firstPage("SELECT id + 0 AS n, name FROM users", null, USERS);
+
+        assertThat(page.keyColumns()).isNull();
+    }
+
+    @Test
+    void groupedQueryIsOrderedByEveryColumn() {
+        SqlPaginator.PagedQuery page = paginator.firstPage(
+                "SELECT name, COUNT(*) AS total FROM users GROUP BY name", null, USERS);
+
+        assertThat(page.keyColumns()).isNull();
+        assertThat(page.sql()).isEqualTo("SELECT name, COUNT(*) AS total FROM users GROUP BY name ORDER BY 1, 2 LIMIT 11");
+    }
+
+    @Test
+    void offsetPagesAdvanceByThePageSize() {
+        SqlPaginator.PagedQuery page = paginator.firstPage("SELECT name FROM users ORDER BY name", null, USERS);
+
+        assertThat(page.keyColumns()).isNull();
+        assertThat(page.sql()).isEqualTo("SELECT name FROM users ORDER BY name LIMIT 11");
+
+        SqlPaginator.PagedQuery next = paginator.nextPage(paginator.cursorAfter(page, read(page)));
+        assertThat(next.sql()).isEqualTo("SELECT name FROM users ORDER BY name LIMIT 11 OFFSET 10");
+    }
+
+    @Test
+    void queriesTheModelAlreadyLimitedRunAsIs() {
+        assertThat(paginator.firstPage("SELECT * FROM users LIMIT 5", null, USERS)).isNull();
+        assertThat(paginator.firstPage("UPDATE users SET name = ?", new Object[]{"x"}, USERS)).isNull();
+    }
+
+    @Test
+    void limitAndFetchFirstDialects() {
+        assertThat(SqlPaginator.Dialect.forProduct("PostgreSQL").limitClause(11, 20)).isEqualTo(" LIMIT 11 OFFSET 20");
+        assertThat(SqlPaginator.Dialect.forProduct("Oracle").limitClause(11, 0)).isEqualTo(" FETCH FIRST 11 ROWS ONLY");
+        assertThat(SqlPaginator.Dialect.forProduct("Microsoft SQL Server").limitClause(11, 20))
+                .isEqualTo(" OFFSET 20 ROWS FETCH NEXT 11 ROWS ONLY");
+    }
+
+    private List<Integer> allIds(SqlPaginator.PagedQuery first) {
+        List<Integer> ids = new ArrayList<>();
+        SqlPaginator.PagedQuery page = first;
+        while (page != null) {
+            QueryResult result = read(page);
+            for (int row = 0; row < result.size(); row++) {
+                Object id = result.getValue(row, "id");
+                ids.add((Integer) (id != null ? id : result.getValue(row, "user_id")));
+            }
+            SqlPaginator.PageCursor cursor = paginator.cursorAfter(page, result);
+            page = cursor != null ? paginator.nextPage(cursor) : null;
+        }
+        return ids;
+    }
+
+    private QueryResult read(SqlPaginator.PagedQuery page) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(page.sql(), page.parameters());
+        boolean truncated = rows.size() > page.pageSize();
+        QueryResult result = QueryResult.fromRows(truncated ? rows.subList(0, page.pageSize()) : rows);
+        result.setTruncated(truncated);
+        return result;
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            values.add(i);
+        }
+        return values;
+    }
+}
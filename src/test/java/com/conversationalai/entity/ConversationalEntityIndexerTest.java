@@ -0,0 +1,74 @@
+package com.conversationalai.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConversationalEntityIndexerTest {
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void annotatedClassesAreListedInTheIndex() throws IOException {
+        compile(source("shop/Customer.java", """
+                package shop;
+                @com.conversationalai.annotation.ConversationalEntity("client")
+                public class Customer {
+                    @com.conversationalai.annotation.ConversationalEntity
+                    public static class Address {
+                    }
+                }
+                """), source("shop/Plain.java", "package shop; public class Plain {}"));
+
+        assertThat(index()).containsExactly("shop.Customer", "shop.Customer$Address");
+    }
+
+    @Test
+    void incrementalCompileKeepsEarlierEntries() throws IOException {
+        compile(source("shop/Customer.java",
+                "package shop; @com.conversationalai.annotation.ConversationalEntity public class Customer {}"));
+        compile(source("shop/Order.java",
+                "package shop; @com.conversationalai.annotation.ConversationalEntity public class Order {}"));
+
+        assertThat(index()).containsExactly("shop.Customer", "shop.Order");
+    }
+
+    @Test
+    void nothingIsWrittenWithoutEntities() throws IOException {
+        compile(source("shop/Plain.java", "package shop; public class Plain {}"));
+
+        assertThat(workDir.resolve("classes").resolve(EntityScanner.INDEX_LOCATION)).doesNotExist();
+    }
+
+    private Path source(String path, String content) throws IOException {
+        Path file = workDir.resolve("src").resolve(path);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content);
+    }
+
+    private void compile(Path... sources) throws IOException {
+        Path classes = Files.createDirectories(workDir.resolve("classes"));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(null, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                    List.of("-d", classes.toString(), "-classpath",
+                            System.getProperty("java.class.path") + java.io.File.pathSeparator + classes),
+                    null, fileManager.getJavaFileObjects(sources));
+            task.setProcessors(List.of(new ConversationalEntityIndexer()));
+            assertThat(task.call()).isTrue();
+        }
+    }
+
+    private List<String> index() throws IOException {
+        return Files.readAllLines(workDir.resolve("classes").resolve(EntityScanner.INDEX_LOCATION));
+    }
+}
@@ -0,0 +1,59 @@
+package com.conversationalai.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordScannerTest {
+
+    private final KeywordScanner scanner = new KeywordScanner(
+            List.of("DROP", "EXEC", "into  outfile", "xp_", "@@version", "sp_executesql"));
+
+    @Test
+    void wordKeywordsMatchOnWordBoundaries() {
+        assertThat(scanner.scan("drop table users")).isEqualTo("DROP");
+        assertThat(scanner.scan("SELECT * FROM users WHERE x = 1 OR EXEC(x)")).isEqualTo("EXEC");
+        assertThat(scanner.scan("SELECT executed_at, dropped FROM jobs")).isNull();
+    }
+
+    @Test
+    void keywordsEndingInUnderscoreMatchAsPrefix() {
+        assertThat(scanner.scan("SELECT xp_cmdshell('dir')")).isEqualTo("XP_");
+        assertThat(scanner.scan("SELECT max_xp_value FROM players")).isNull();
+    }
+
+    @Test
+    void multiWordKeywordsMatchAcrossAnyWhitespace() {
+        assertThat(scanner.scan("SELECT * FROM users INTO\n\t OUTFILE '/tmp/x'")).isEqualTo("INTO OUTFILE");
+        assertThat(scanner.scan("INSERT INTO outfiles (id) VALUES (?)")).isNull();
+    }
+
+    @Test
+    void symbolKeywordsMatch() {
+        assertThat(scanner.scan("SELECT @@VERSION")).isEqualTo("@@VERSION");
+        assertThat(scanner.scan("SELECT @@version_comment")).isNull();
+    }
+
+    @Test
+    void quotedTextIsSkipped() {
+        assertThat(scanner.scan("SELECT * FROM notes WHERE body = 'drop table; into outfile'")).isNull();
+        assertThat(scanner.scan("SELECT \"DROP\" FROM t")).isNull();
+    }
+
+    @Test
+    void secondStatementIsReported() {
+        assertThat(scanner.scan("SELECT 1; SELECT 2")).isEqualTo(KeywordScanner.STATEMENT_SEPARATOR);
+        assertThat(scanner.scan("SELECT 1; ;  ")).isNull();
+    }
+
+    @Test
+    void nonAsciiKeywordsFallBackToSubstringSearch() {
+        KeywordScanner withFallback = new KeywordScanner(List.of("DROP", "löschen"));
+
+        assertThat(withFallback.scan("SELECT * FROM t WHERE LÖSCHEN = 1")).isEqualTo("LÖSCHEN");
+        assertThat(withFallback.scan("DROP TABLE t")).isEqualTo("DROP");
+        assertThat(withFallback.scan("SELECT 1")).isNull();
+    }
+}
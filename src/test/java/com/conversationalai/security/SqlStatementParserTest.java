@@ -0,0 +1,160 @@
+package com.conversationalai.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementParserTest {
+
+    @Test
+    void typedLiteralsAreNotColumns() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT * FROM orders WHERE created_at > DATE '2024-01-01' AND updated_at < TIMESTAMP '2024-06-01 10:00:00'"
+                        + " AND shipped_at > CURRENT_DATE - INTERVAL '7' DAY AND due_time = TIME '12:00'");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(columnNames(statement)).containsExactly("created_at", "updated_at", "shipped_at", "due_time");
+    }
+
+    @Test
+    void dateColumnWithoutLiteralIsAColumn() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT date, time FROM events WHERE date = ?");
+
+        assertThat(columnNames(statement)).containsExactly("date", "time", "date");
+        assertThat(statement.isWhereReferencesColumn()).isTrue();
+    }
+
+    @Test
+    void contextualKeywordsAreColumnsOutsideTheirSyntacticPosition() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT year, month, day, hour, first, last, top, row FROM events WHERE year = ? AND first = ?");
+
+        assertThat(columnNames(statement))
+                .containsExactly("year", "month", "day", "hour", "first", "last", "top", "row", "year", "first");
+    }
+
+    @Test
+    void deleteFilteredOnKeywordLikeColumnHasWhereCondition() {
+        ParsedStatement statement = SqlStatementParser.parse("DELETE FROM events WHERE year = ?");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(statement.getTargetTable()).isEqualTo("events");
+        assertThat(statement.isHasWhere()).isTrue();
+        assertThat(statement.isWhereReferencesColumn()).isTrue();
+        assertThat(statement.getWhereParameterCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateOfDefaultColumnAndDefaultValue() {
+        ParsedStatement statement = SqlStatementParser.parse("UPDATE settings SET \"default\" = DEFAULT, day = ? WHERE id = ?");
+
+        assertThat(columnNames(statement)).containsExactly("default", "day", "id");
+    }
+
+    @Test
+    void insertWithDefaultValueRecordsOnlyTargetColumns() {
+        ParsedStatement statement = SqlStatementParser.parse("INSERT INTO events (name, year) VALUES (?, DEFAULT)");
+
+        assertThat(statement.getType()).isEqualTo(ParsedStatement.StatementType.INSERT);
+        assertThat(columnNames(statement)).containsExactly("name", "year");
+        assertThat(statement.getParameterCount()).isEqualTo(1);
+    }
+
+    @Test
+    void multiWordCastTypesAreNotColumns() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT CAST(price AS DOUBLE PRECISION), CAST(code AS CHARACTER VARYING(20)), CAST(total AS DECIMAL(10, 2)) "
+                        + "FROM products WHERE CAST(stock AS INTEGER) > ?");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(columnNames(statement)).containsExactly("price", "code", "total", "stock");
+    }
+
+    @Test
+    void keywordsInTheirPositionAreNotColumns() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT name FROM users ORDER BY created_at DESC NULLS LAST OFFSET 10 ROWS FETCH NEXT 5 ROWS ONLY");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(columnNames(statement)).containsExactly("name", "created_at");
+    }
+
+    @Test
+    void topAndPercentAreKeywordsAfterSelect() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT TOP 10 PERCENT name FROM users");
+
+        assertThat(columnNames(statement)).containsExactly("name");
+    }
+
+    @Test
+    void datePartsAreKeywordsInExtractAndIntervals() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT EXTRACT(YEAR FROM created_at) FROM orders "
+                        + "WHERE created_at > DATE_ADD(NOW(), INTERVAL 1 DAY) AND age < INTERVAL '1 2' DAY TO SECOND");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(columnNames(statement)).containsExactly("created_at", "created_at", "age");
+    }
+
+    @Test
+    void columnNamedLikeKeywordCanBeAnImplicitAlias() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT COUNT(*) total, created_at year FROM orders");
+
+        assertThat(statement.getOutputAliases()).containsExactlyInAnyOrder("total", "year");
+    }
+
+    @Test
+    void commentsAndLiteralsAreNotKeywords() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT name FROM users WHERE note = 'DROP TABLE users' -- ; DELETE");
+
+        assertThat(statement.isValid()).isTrue();
+        assertThat(statement.isHasComments()).isTrue();
+        assertThat(statement.isMultipleStatements()).isFalse();
+        assertThat(statement.getWords()).doesNotContain("DROP", "DELETE");
+    }
+
+    @Test
+    void secondStatementIsDetected() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT * FROM users; DELETE FROM users");
+
+        assertThat(statement.isMultipleStatements()).isTrue();
+    }
+
+    @Test
+    void unbalancedParenthesisIsAParseError() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT * FROM users WHERE (id = ?");
+
+        assertThat(statement.isValid()).isFalse();
+    }
+
+    @Test
+    void selectItemsDistinguishColumnsAliasesAndExpressions() {
+        ParsedStatement statement = SqlStatementParser.parse(
+                "SELECT DISTINCT u.id AS user_id, name, u.*, COUNT(*) total, price * 2, \"Email\" e, * FROM users u");
+
+        assertThat(statement.getSelectItems()).containsExactly(
+                new ParsedStatement.SelectItem("u", "id", "user_id"),
+                new ParsedStatement.SelectItem(null, "name", null),
+                new ParsedStatement.SelectItem("u", "*", null),
+                new ParsedStatement.SelectItem(null, null, "total"),
+                new ParsedStatement.SelectItem(null, null, null),
+                new ParsedStatement.SelectItem(null, "Email", "e"),
+                new ParsedStatement.SelectItem(null, "*", null));
+    }
+
+    @Test
+    void selectItemsStopAtTheFirstClause() {
+        ParsedStatement statement = SqlStatementParser.parse("SELECT TOP 5 id, (SELECT MAX(x) FROM t) m FROM users");
+
+        assertThat(statement.getSelectItems()).containsExactly(
+                new ParsedStatement.SelectItem(null, "id", null),
+                new ParsedStatement.SelectItem(null, null, "m"));
+        assertThat(SqlStatementParser.parse("DELETE FROM users WHERE id = ?").getSelectItems()).isEmpty();
+    }
+
+    private static List<String> columnNames(ParsedStatement statement) {
+        return statement.getColumns().stream().map(ParsedStatement.ColumnReference::name).toList();
+    }
+}
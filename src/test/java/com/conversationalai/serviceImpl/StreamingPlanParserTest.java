@@ -0,0 +1,70 @@
+package com.conversationalai.serviceImpl;
+
+import com.conversationalai.dto.ConversationalLLMResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingPlanParserTest {
+
+    private final List<ConversationalLLMResponse> plans = new ArrayList<>();
+
+    @Test
+    void planIsPublishedBeforeTheResponseTextArrives() throws IOException {
+        StreamingPlanParser parser = new StreamingPlanParser(new JsonFactory(), plans::add);
+
+        parser.accept("```json\n{\"status\": \"SUCCESS\", \"intent\": \"READ\", \"tableName\": \"us");
+        parser.accept("ers\", \"sql\": \"SELECT * FROM users WHERE age > ? AND name = ?\", \"param");
+        assertThat(plans).isEmpty();
+        parser.accept("eters\": [30, \"ann\"], \"humanResponse\": \"Here are");
+
+        assertThat(plans).singleElement().satisfies(plan -> {
+            assertThat(plan.isValid()).isTrue();
+            assertThat(plan.getIntent()).isEqualTo("READ");
+            assertThat(plan.getTableName()).isEqualTo("users");
+            assertThat(plan.getSql()).isEqualTo("SELECT * FROM users WHERE age > ? AND name = ?");
+            assertThat(plan.getParameters()).containsExactly(30, "ann");
+        });
+
+        parser.accept(" the users\"}");
+        assertThat(plans).hasSize(1);
+    }
+
+    @Test
+    void nestedValuesAreSkipped() throws IOException {
+        StreamingPlanParser parser = new StreamingPlanParser(new JsonFactory(), plans::add);
+
+        parser.accept("{\"status\": \"SUCCESS\", \"debug\": {\"sql\": \"DROP TABLE users\"}, \"intent\": \"COUNT\", "
+                + "\"sql\": \"SELECT COUNT(*) FROM users WHERE score > ?\", \"parameters\": [[1], 2.5]}");
+
+        assertThat(plans).singleElement().satisfies(plan -> {
+            assertThat(plan.getSql()).isEqualTo("SELECT COUNT(*) FROM users WHERE score > ?");
+            assertThat(plan.getParameters()).containsExactly(2.5);
+        });
+    }
+
+    @Test
+    void onlySuccessfulPlansArePublished() throws IOException {
+        StreamingPlanParser parser = new StreamingPlanParser(new JsonFactory(), plans::add);
+
+        parser.accept("{\"status\": \"MISSING_INFO\", \"intent\": \"CREATE\", \"sql\": \"INSERT INTO users (name) VALUES (?)\", "
+                + "\"parameters\": [\"ann\"]}");
+
+        assertThat(plans).isEmpty();
+    }
+
+    @Test
+    void malformedJsonIsAbandonedQuietly() throws IOException {
+        StreamingPlanParser parser = new StreamingPlanParser(new JsonFactory(), plans::add);
+
+        parser.accept("{\"status\": \"SUCCESS\", \"intent\": READ}");
+        parser.accept("\"sql\": \"SELECT 1\", \"parameters\": []}");
+
+        assertThat(plans).isEmpty();
+    }
+}
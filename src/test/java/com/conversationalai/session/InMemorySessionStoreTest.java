@@ -0,0 +1,108 @@
+package com.conversationalai.session;
+
+import com.conversationalai.config.ConversationalAIProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemorySessionStoreTest {
+
+    private final ConversationalAIProperties properties = new ConversationalAIProperties();
+    private final MapBackend backend = new MapBackend();
+
+    @Test
+    void loadedStateIsACopy() {
+        InMemorySessionStore store = new InMemorySessionStore(properties, null);
+        store.save(state("s1", "show users"));
+
+        store.load("s1").getHistory().add("changed");
+
+        assertThat(store.load("s1").getHistory()).containsExactly("show users");
+    }
+
+    @Test
+    void idleSessionExpires() throws InterruptedException {
+        properties.getSession().setIdleTtlMs(20);
+        InMemorySessionStore store = new InMemorySessionStore(properties, null);
+        store.save(state("s1", "show users"));
+        assertThat(store.load("s1")).isNotNull();
+
+        Thread.sleep(60);
+
+        assertThat(store.load("s1")).isNull();
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void backendIsReadThroughOnlyForLiveSessions() {
+        InMemorySessionStore store = new InMemorySessionStore(properties, backend);
+        ConversationState live = state("live", "count orders");
+        live.setLastAccessedAt(System.currentTimeMillis());
+        ConversationState stale = state("stale", "count orders");
+        stale.setLastAccessedAt(System.currentTimeMillis() - properties.getSession().getIdleTtlMs() - 1);
+        backend.save(live);
+        backend.save(stale);
+
+        assertThat(store.load("live").getHistory()).containsExactly("count orders");
+        assertThat(store.load("stale")).isNull();
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(backend.states).doesNotContainKey("stale");
+    }
+
+    @Test
+    void leastRecentlyUsedSessionIsEvicted() {
+        properties.getSession().setMaxSessions(2);
+        InMemorySessionStore store = new InMemorySessionStore(properties, null);
+        store.save(state("s1", "a"));
+        store.save(state("s2", "b"));
+        store.load("s1");
+        store.save(state("s3", "c"));
+
+        assertThat(store.load("s2")).isNull();
+        assertThat(store.load("s1")).isNotNull();
+        assertThat(store.load("s3")).isNotNull();
+    }
+
+    @Test
+    void historyIsTrimmedOldestFirst() {
+        properties.getSession().setMaxHistoryTurns(3);
+        properties.getSession().setTokenBudget(5);
+        InMemorySessionStore store = new InMemorySessionStore(properties, backend);
+
+        store.save(state("s1", "t1", "t2", "a much longer turn of about twenty", "t4"));
+
+        assertThat(store.load("s1").getHistory()).containsExactly("t4");
+        assertThat(backend.states.get("s1").getHistory()).containsExactly("t4");
+    }
+
+    private static ConversationState state(String sessionId, String... history) {
+        return ConversationState.builder()
+                .sessionId(sessionId)
+                .history(new ArrayList<>(List.of(history)))
+                .build();
+    }
+
+    private static final class MapBackend implements SessionBackend {
+        private final Map<String, ConversationState> states = new HashMap<>();
+
+        @Override
+        public ConversationState load(String sessionId) {
+            return states.get(sessionId);
+        }
+
+        @Override
+        public void save(ConversationState state) {
+            states.put(state.getSessionId(), state);
+        }
+
+        @Override
+        public void remove(String sessionId) {
+            states.remove(sessionId);
+        }
+    }
+}